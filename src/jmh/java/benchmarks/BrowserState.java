@@ -0,0 +1,50 @@
+package benchmarks;
+
+import base.ChromeStartup;
+import base.SiteFixture;
+import base.TestBase;
+import base.Waits;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+
+/**
+ * One headless Chrome per benchmark trial, opened on the local site fixture and hydrated.
+ * <p>
+ * The driver is not wrapped by {@code StepTimer}, so benchmarks measure plain WebDriver round-trips. Forked JMH JVMs
+ * start their own fixture; no network access is needed.
+ */
+@State(Scope.Benchmark)
+public class BrowserState {
+
+    WebDriver driver;
+    JavascriptExecutor js;
+    WebDriverWait wait;
+    String url;
+
+    @Setup(Level.Trial)
+    public void launch() {
+        System.setProperty("headless", System.getProperty("headless", "true"));
+        ChromeStartup.resolveDriver();
+        url = SiteFixture.start().url();
+        driver = new ChromeDriver(TestBase.chromeOptions());
+        js = (JavascriptExecutor) driver;
+        wait = new WebDriverWait(driver, Duration.ofSeconds(30));
+        driver.get(url);
+        Waits.untilHydrated(driver, Duration.ofSeconds(30));
+    }
+
+    @TearDown(Level.Trial)
+    public void quit() {
+        if (driver != null) driver.quit();
+        SiteFixture.stop();
+    }
+}
@@ -0,0 +1,89 @@
+package benchmarks;
+
+import base.Locators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Element lookup strategies used by {@code PortfolioTests}, each as one WebDriver round-trip or more:
+ * CSS vs XPath for the same form field, probing the navbar candidates with {@code findElements} vs resolving them
+ * in one script, and per-text XPath presence checks vs {@link Locators#awaitTexts(String...)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocatorBenchmark {
+
+    // Same locators as PortfolioTests / ContactFormTest
+    private static final By NAME_CSS = By.cssSelector("input[placeholder*='Your Name'], input[name='name'], input#name");
+    private static final By NAME_XPATH = By.xpath("//input[contains(@placeholder,'Your Name') or @name='name' or @id='name']");
+    private static final List<By> NAV_CONTACT_CANDIDATES = List.of(
+            By.cssSelector("a[href*='#contact']"),
+            By.xpath("//header//button[normalize-space()='Contact']"),
+            By.xpath("//button[normalize-space()='Contact']"),
+            By.xpath("//div[@id='menu-appbar']//p[normalize-space()='Contact']"));
+    private static final String NAV_CONTACT_JS = """
+            var xp = arguments[0];
+            for (var i = 0; i < xp.length; i++) {
+              var el = document.evaluate(xp[i], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+              if (el) return el;
+            }
+            return null;
+            """;
+    private static final List<String> NAV_CONTACT_XPATHS = List.of(
+            "//a[contains(@href,'#contact')]",
+            "//header//button[normalize-space()='Contact']",
+            "//button[normalize-space()='Contact']",
+            "//div[@id='menu-appbar']//p[normalize-space()='Contact']");
+    private static final String[] SKILLS = {"Programming Languages", "Java", "PostgreSQL", "Docker"};
+
+    @Benchmark
+    public WebElement cssLookup(BrowserState s) {
+        return s.driver.findElement(NAME_CSS);
+    }
+
+    @Benchmark
+    public WebElement xpathLookup(BrowserState s) {
+        return s.driver.findElement(NAME_XPATH);
+    }
+
+    /** What {@code navigateToContact()} did before memoization: up to four findElements calls. */
+    @Benchmark
+    public WebElement probeCandidates(BrowserState s) {
+        for (By b : NAV_CONTACT_CANDIDATES) {
+            List<WebElement> found = s.driver.findElements(b);
+            if (!found.isEmpty()) return found.get(0);
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Object scriptedCandidates(BrowserState s) {
+        return s.js.executeScript(NAV_CONTACT_JS, NAV_CONTACT_XPATHS);
+    }
+
+    @Benchmark
+    public int xpathTextPerItem(BrowserState s) {
+        int n = 0;
+        for (String t : SKILLS) n += s.driver.findElements(By.xpath("//*[contains(normalize-space(.),'" + t + "')]")).size();
+        return n;
+    }
+
+    @Benchmark
+    public Map<String, WebElement> batchedTexts(BrowserState s) {
+        return new Locators(s.driver, s.wait).awaitTexts(SKILLS);
+    }
+}
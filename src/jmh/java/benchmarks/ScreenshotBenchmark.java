@@ -0,0 +1,89 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where the time of a failure screenshot goes: capture as base64 (what the wire carries), the extra decode to PNG
+ * bytes that {@code OutputType.BYTES} implies, and re-encoding the image on the JVM side.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScreenshotBenchmark {
+
+    private String base64;
+    private byte[] png;
+    private BufferedImage image;
+
+    @Setup
+    public void capture(BrowserState s) throws IOException {
+        base64 = ((TakesScreenshot) s.driver).getScreenshotAs(OutputType.BASE64);
+        png = Base64.getDecoder().decode(base64);
+        image = ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+    @Benchmark
+    public String captureBase64(BrowserState s) {
+        return ((TakesScreenshot) s.driver).getScreenshotAs(OutputType.BASE64);
+    }
+
+    @Benchmark
+    public byte[] captureBytes(BrowserState s) {
+        return ((TakesScreenshot) s.driver).getScreenshotAs(OutputType.BYTES);
+    }
+
+    @Benchmark
+    public byte[] decodeBase64() {
+        return Base64.getDecoder().decode(base64);
+    }
+
+    @Benchmark
+    public BufferedImage decodePng() throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+    @Benchmark
+    public byte[] encodePng() throws IOException {
+        return encode("png");
+    }
+
+    @Benchmark
+    public byte[] encodeJpeg() throws IOException {
+        return encode("jpg");
+    }
+
+    private byte[] encode(String format) throws IOException {
+        BufferedImage src = image;
+        if ("jpg".equals(format) && src.getColorModel().hasAlpha()) {
+            // JPEG has no alpha channel; ImageIO refuses ARGB input
+            BufferedImage rgb = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_RGB);
+            rgb.getGraphics().drawImage(src, 0, 0, null);
+            src = rgb;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(png.length);
+        ImageIO.write(src, format, out);
+        return out.toByteArray();
+    }
+}
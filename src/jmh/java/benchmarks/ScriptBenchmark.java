@@ -0,0 +1,57 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single {@code executeScript} round-trip, with and without an element argument, as used by
+ * {@code hash()} and {@code jsClick()} in {@code PortfolioTests}, against a native click for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScriptBenchmark {
+
+    private WebElement brand;
+
+    @Setup
+    public void resolve(BrowserState s) {
+        // The header brand link: clicking it only sets the hash, so repeated clicks leave the page as it was
+        brand = s.driver.findElement(By.xpath("//header//a[normalize-space()='NADIL']"));
+    }
+
+    @Benchmark
+    public Object emptyScript(BrowserState s) {
+        return s.js.executeScript("return 1;");
+    }
+
+    @Benchmark
+    public Object locationHash(BrowserState s) {
+        return s.js.executeScript("return location.hash;");
+    }
+
+    @Benchmark
+    public Object jsClick(BrowserState s) {
+        return s.js.executeScript("arguments[0].click();", brand);
+    }
+
+    @Benchmark
+    public void nativeClick() {
+        brand.click();
+    }
+}
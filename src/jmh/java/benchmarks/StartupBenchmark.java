@@ -0,0 +1,59 @@
+package benchmarks;
+
+import base.ChromeStartup;
+import base.TestBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Driver startup (new ChromeDriver + quit) with the suite's options, with and without the fast-startup mode of
+ * {@link ChromeStartup} (curated flags plus a cloned profile template), and with extra flags on top. Each
+ * invocation is a single shot: JMH's steady-state modes would only measure a warmed-up browser cache.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({"false", "true"})
+    public String fastStartup;
+
+    /** Extra Chrome switches on top of {@link TestBase#chromeOptions()}, space separated. */
+    @Param({
+            "",
+            "--disable-dev-shm-usage",
+            "--disable-features=Translate,OptimizationHints,MediaRouter"
+    })
+    public String flags;
+
+    @Setup
+    public void resolveDriver() {
+        System.setProperty("headless", System.getProperty("headless", "true"));
+        System.setProperty("chrome.fastStartup", fastStartup);
+        ChromeStartup.resolveDriver();
+    }
+
+    @Benchmark
+    public void launchAndQuit() {
+        ChromeOptions options = TestBase.chromeOptions();
+        if (!flags.isBlank()) options.addArguments(flags.trim().split("\\s+"));
+        if (ChromeStartup.fast()) options.addArguments("--user-data-dir=" + ChromeStartup.cloneProfile(options));
+        new ChromeDriver(options).quit();
+    }
+}
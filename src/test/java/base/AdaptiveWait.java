@@ -0,0 +1,243 @@
+package base;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Wait timeouts learned from how long each named condition actually takes.
+ * <p>
+ * Every successful wait records its latency under a condition name ({@code spa.hydration}, {@code contact.hash},
+ * {@code contact.success}, {@code hero.brand}, ...), one per call site: a lookup that resolves at once and one that
+ * follows a navigation must not share a history, or the fast one drags the other's timeout down to the minimum.
+ * Once a condition has {@code wait.minSamples} samples (default 20), its timeout becomes the
+ * {@code wait.percentile} (default 99th) latency times {@code wait.margin} (default 3), clamped between
+ * {@code wait.minTimeoutMs} (default 2000) and the fixed timeout the call site used before, so a learned timeout is
+ * never longer than the old one. Polled waits check every quarter of the median latency (10-500 ms) instead of
+ * every 500 ms. Until enough samples exist, the fixed timeout and default polling apply.
+ * <p>
+ * Samples are kept per site (the {@code -Dbase.url} host, the local fixture or the deployed portfolio), so fast
+ * fixture runs never shorten the timeouts used against the deployed site. Only successful waits are sampled: a
+ * broken deploy fails at the learned timeout on every wait instead of pushing the limits up, while an environment
+ * that became slower raises them through its slower successes. Samples (the latest {@code wait.historySamples} per
+ * condition, default 200) are kept in {@code target/waits/history.csv} ({@code -Dwait.history});
+ * {@code -Dwait.adaptive=false} restores the fixed timeouts.
+ */
+public final class AdaptiveWait {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveWait.class);
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("wait.adaptive", "true"));
+    private static final Path HISTORY = Path.of(System.getProperty("wait.history", "target/waits/history.csv"));
+    private static final int MIN_SAMPLES = Integer.getInteger("wait.minSamples", 20);
+    private static final int KEEP = Integer.getInteger("wait.historySamples", 200);
+    private static final double PERCENTILE = Double.parseDouble(System.getProperty("wait.percentile", "99"));
+    private static final double MARGIN = Double.parseDouble(System.getProperty("wait.margin", "3"));
+    private static final long MIN_TIMEOUT_MS = Long.getLong("wait.minTimeoutMs", 2_000);
+    private static final Duration DEFAULT_POLLING = Duration.ofMillis(500);
+    private static final long MIN_POLL_MS = 10;
+    private static final String HEADER = "site|condition,ms";
+    private static final String SITE = siteKey();
+
+    /** Site key of the in-process {@link SiteFixture}, for callers that target it without {@code -Dsite=local}. */
+    public static final String FIXTURE_SITE = "fixture";
+
+    // condition -> latest samples in ms, oldest first; each deque is guarded by itself
+    private static final Map<String, Deque<Long>> samples = loadHistory();
+    private static volatile boolean changed;
+
+    /** Timeout and polling interval for one wait; {@code learned} is false while the fixed fallback applies. */
+    public record Policy(Duration timeout, Duration polling, boolean learned, int samples, long percentileMs) { }
+
+    private AdaptiveWait() { }
+
+    /** Site whose samples this JVM uses by default: the {@code -Dbase.url} host, the fixture or the deployed site. */
+    public static String site() {
+        return SITE;
+    }
+
+    /** The policy for {@code condition}, falling back to {@code fallback} without enough history. */
+    public static Policy policy(String condition, Duration fallback) {
+        return policy(SITE, condition, fallback);
+    }
+
+    /** The policy for {@code condition} on {@code site} (see {@link #site()}). */
+    public static Policy policy(String site, String condition, Duration fallback) {
+        if (!ENABLED) return new Policy(fallback, DEFAULT_POLLING, false, 0, 0);
+        Deque<Long> d = samples.get(site + "|" + condition);
+        long[] values;
+        if (d == null) {
+            values = new long[0];
+        } else {
+            synchronized (d) {
+                values = d.stream().mapToLong(Long::longValue).toArray();
+            }
+        }
+        return policy(values, fallback);
+    }
+
+    static Policy policy(long[] values, Duration fallback) {
+        if (values.length < MIN_SAMPLES) return new Policy(fallback, DEFAULT_POLLING, false, values.length, 0);
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        long high = percentile(sorted, PERCENTILE);
+        long timeoutMs = Math.max(MIN_TIMEOUT_MS, Math.round(high * MARGIN));
+        timeoutMs = Math.min(timeoutMs, fallback.toMillis());
+        long pollMs = Math.max(MIN_POLL_MS, Math.min(DEFAULT_POLLING.toMillis(), percentile(sorted, 50) / 4));
+        return new Policy(Duration.ofMillis(timeoutMs), Duration.ofMillis(pollMs), true, sorted.length, high);
+    }
+
+    /**
+     * Runs an event-driven wait (typically a {@link Waits} call) with the learned timeout for {@code condition} and
+     * records how long it took.
+     *
+     * @throws TimeoutException if the wait timed out; the message names the condition and its policy
+     */
+    public static void run(String condition, Duration fallback, Consumer<Duration> wait) {
+        run(SITE, condition, fallback, wait);
+    }
+
+    /** {@link #run(String, Duration, Consumer)} with the samples of {@code site}. */
+    public static void run(String site, String condition, Duration fallback, Consumer<Duration> wait) {
+        Policy p = policy(site, condition, fallback);
+        long start = System.nanoTime();
+        try {
+            wait.accept(p.timeout());
+        } catch (TimeoutException e) {
+            throw timedOut(condition, p, e);
+        }
+        record(site, condition, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * A {@link WebDriverWait} whose timeout and polling interval come from {@code condition}'s history; every
+     * {@code until} call on it is recorded as a sample.
+     */
+    public static WebDriverWait webDriverWait(WebDriver driver, String condition, Duration fallback) {
+        return webDriverWait(driver, SITE, condition, fallback);
+    }
+
+    /** {@link #webDriverWait(WebDriver, String, Duration)} with the samples of {@code site}. */
+    public static WebDriverWait webDriverWait(WebDriver driver, String site, String condition, Duration fallback) {
+        return new Tracked(driver, site, condition, policy(site, condition, fallback));
+    }
+
+    /** Writes the samples of this and previous runs back to the history file. */
+    public static void exportHistory() throws IOException {
+        if (!changed) return;
+        StringBuilder csv = new StringBuilder(HEADER).append('\n');
+        for (Map.Entry<String, Deque<Long>> e : new TreeMap<>(samples).entrySet()) {
+            synchronized (e.getValue()) {
+                e.getValue().forEach(ms -> csv.append(e.getKey()).append(',').append(ms).append('\n'));
+            }
+        }
+        Path abs = HISTORY.toAbsolutePath();
+        Files.createDirectories(abs.getParent());
+        Path tmp = abs.resolveSibling(abs.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+        Files.writeString(tmp, csv);
+        Files.move(tmp, abs, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        changed = false;
+    }
+
+    static void record(String site, String condition, long ms) {
+        Deque<Long> d = samples.computeIfAbsent(site + "|" + condition, k -> new ArrayDeque<>());
+        synchronized (d) {
+            d.addLast(ms);
+            while (d.size() > KEEP) d.removeFirst();
+        }
+        changed = true;
+    }
+
+    private static TimeoutException timedOut(String condition, Policy p, TimeoutException cause) {
+        String how = p.learned()
+                ? String.format(Locale.ROOT, "learned timeout, p%s of %d samples = %d ms",
+                        fmt(PERCENTILE), p.samples(), p.percentileMs())
+                : "fixed timeout, " + p.samples() + " of " + MIN_SAMPLES + " samples needed to learn one";
+        return new TimeoutException("'" + condition + "' not met within " + p.timeout().toMillis() + " ms ("
+                + how + "): " + cause.getRawMessage(), cause);
+    }
+
+    // Mirrors TestBase#baseUrl without starting the fixture
+    private static String siteKey() {
+        String explicit = System.getProperty("base.url");
+        if (explicit != null && !explicit.isBlank()) {
+            URI uri = URI.create(explicit.trim());
+            if (uri.getHost() == null) return explicit.trim();
+            return uri.getHost() + (uri.getPort() > 0 ? ":" + uri.getPort() : "");
+        }
+        boolean local = "local".equalsIgnoreCase(System.getProperty("site", System.getenv().getOrDefault("SITE", "")));
+        return local ? FIXTURE_SITE : "deployed";
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int idx = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+
+    private static String fmt(double v) {
+        return v == Math.rint(v) ? String.valueOf((long) v) : String.valueOf(v);
+    }
+
+    private static Map<String, Deque<Long>> loadHistory() {
+        Map<String, Deque<Long>> byCondition = new ConcurrentHashMap<>();
+        if (!Files.exists(HISTORY)) return byCondition;
+        try {
+            for (String line : Files.readAllLines(HISTORY)) {
+                int comma = line.lastIndexOf(',');
+                if (comma <= 0 || line.equals(HEADER)) continue;
+                try {
+                    Deque<Long> d = byCondition.computeIfAbsent(line.substring(0, comma), k -> new ArrayDeque<>());
+                    d.addLast(Long.parseLong(line.substring(comma + 1).trim()));
+                    if (d.size() > KEEP) d.removeFirst();
+                } catch (NumberFormatException ignored) { }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read wait history {}: {}", HISTORY, e.getMessage());
+        }
+        return byCondition;
+    }
+
+    /** Records the latency of every successful {@code until}. */
+    private static final class Tracked extends WebDriverWait {
+        private final String site;
+        private final String condition;
+        private final Policy policy;
+
+        Tracked(WebDriver driver, String site, String condition, Policy policy) {
+            super(driver, policy.timeout(), policy.polling());
+            this.site = site;
+            this.condition = condition;
+            this.policy = policy;
+        }
+
+        @Override
+        public <V> V until(Function<? super WebDriver, V> isTrue) {
+            long start = System.nanoTime();
+            try {
+                V value = super.until(isTrue);
+                record(site, condition, (System.nanoTime() - start) / 1_000_000);
+                return value;
+            } catch (TimeoutException e) {
+                throw timedOut(condition, policy, e);
+            }
+        }
+    }
+}
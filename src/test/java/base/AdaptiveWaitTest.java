@@ -0,0 +1,46 @@
+package base;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+public class AdaptiveWaitTest {
+
+    private static final Duration FALLBACK = Duration.ofSeconds(30);
+
+    @Test
+    public void fixedTimeoutUntilEnoughSamples() {
+        AdaptiveWait.Policy p = AdaptiveWait.policy(new long[] {100, 120, 90}, FALLBACK);
+        Assert.assertFalse(p.learned());
+        Assert.assertEquals(p.timeout(), FALLBACK);
+        Assert.assertEquals(p.polling(), Duration.ofMillis(500));
+    }
+
+    @Test
+    public void timeoutFollowsHighPercentileWithMargin() {
+        long[] samples = new long[100];
+        Arrays.fill(samples, 400);
+        samples[99] = 1_500; // p99 of 100 samples is the 99th smallest
+        samples[98] = 1_200;
+        AdaptiveWait.Policy p = AdaptiveWait.policy(samples, FALLBACK);
+        Assert.assertTrue(p.learned());
+        Assert.assertEquals(p.percentileMs(), 1_200);
+        Assert.assertEquals(p.timeout(), Duration.ofMillis(3_600));
+        Assert.assertEquals(p.polling(), Duration.ofMillis(100));
+    }
+
+    @Test
+    public void timeoutClampedBetweenMinimumAndFallback() {
+        long[] fast = new long[50];
+        Arrays.fill(fast, 5);
+        AdaptiveWait.Policy quick = AdaptiveWait.policy(fast, FALLBACK);
+        Assert.assertEquals(quick.timeout(), Duration.ofMillis(2_000));
+        Assert.assertEquals(quick.polling(), Duration.ofMillis(10));
+
+        long[] slow = new long[50];
+        Arrays.fill(slow, 25_000);
+        Assert.assertEquals(AdaptiveWait.policy(slow, FALLBACK).timeout(), FALLBACK);
+    }
+}
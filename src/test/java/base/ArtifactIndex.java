@@ -0,0 +1,103 @@
+package base;
+
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Index from TestNG result id ({@link ITestResult#id()}) to the failure artifacts captured for that result.
+ * <p>
+ * Capture code publishes here instead of leaving consumers to rescan the debug directory: lookups are O(1), safe
+ * under parallel runs, and subscribers (the Extent listener) are notified as soon as a result's artifacts exist,
+ * which matters because TestNG reports a failure before {@code @AfterMethod} capture runs. Every entry is also
+ * appended to {@code target/test-debug/manifest.jsonl}; {@code listeners.ShardMerge} reads each shard's manifest with
+ * {@link #readManifest(Path)} to copy the artifacts it lists and write a combined manifest for the merged tree.
+ */
+public final class ArtifactIndex {
+
+    public static final Path MANIFEST = Path.of("target", "test-debug", "manifest.jsonl");
+
+    private static final Map<String, ArtifactStore.Artifacts> byResultId = new ConcurrentHashMap<>();
+    private static final List<BiConsumer<String, ArtifactStore.Artifacts>> subscribers = new CopyOnWriteArrayList<>();
+    private static final Pattern LINE = Pattern.compile(
+            "\\{\"id\":\"([^\"]*)\",\"test\":\"([^\"]*)\",\"dom\":\"([^\"]*)\",\"screenshot\":(null|\"([^\"]*)\")}");
+
+    private ArtifactIndex() { }
+
+    /** One manifest line: a result id, its {@code Class#method} and the artifacts captured for it. */
+    public record Entry(String id, String test, ArtifactStore.Artifacts artifacts) { }
+
+    /** Records the artifacts of a result, notifies subscribers and queues the manifest entry. */
+    public static void publish(ITestResult result, ArtifactStore.Artifacts artifacts) {
+        String id = result.id();
+        byResultId.put(id, artifacts);
+        for (BiConsumer<String, ArtifactStore.Artifacts> s : subscribers) s.accept(id, artifacts);
+
+        String line = line(new Entry(id, result.getTestClass().getName() + "#" + result.getMethod().getMethodName(), artifacts));
+        ArtifactStore.writeLater(() -> {
+            Files.createDirectories(MANIFEST.getParent());
+            Files.writeString(MANIFEST, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        });
+    }
+
+    /**
+     * Marks the end of capture for a result: subscribers are called with {@code null} artifacts so whatever waits for
+     * them stops waiting, whether or not anything was published. Called once per test after its {@code @AfterMethod}s.
+     */
+    public static void complete(ITestResult result) {
+        if (byResultId.containsKey(result.id())) return;
+        for (BiConsumer<String, ArtifactStore.Artifacts> s : subscribers) s.accept(result.id(), null);
+    }
+
+    /** Artifacts published for a result id in this JVM, or null. */
+    public static ArtifactStore.Artifacts lookup(String resultId) {
+        return byResultId.get(resultId);
+    }
+
+    /** Registers a callback invoked on the publishing thread for every new entry, and by {@link #complete(ITestResult)}. */
+    public static void subscribe(BiConsumer<String, ArtifactStore.Artifacts> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /** Loads a manifest written by any process, in file order; empty when the file does not exist. */
+    public static List<Entry> readManifest(Path manifest) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.exists(manifest)) return entries;
+        for (String line : Files.readAllLines(manifest)) {
+            Matcher m = LINE.matcher(line.trim());
+            if (!m.matches()) continue;
+            entries.add(new Entry(m.group(1), m.group(2),
+                    new ArtifactStore.Artifacts(Path.of(m.group(3)), m.group(5) == null ? null : Path.of(m.group(5)))));
+        }
+        return entries;
+    }
+
+    /** Writes {@code entries} as a new manifest, replacing any existing file. */
+    public static void writeManifest(Path manifest, List<Entry> entries) throws IOException {
+        if (manifest.getParent() != null) Files.createDirectories(manifest.getParent());
+        StringBuilder lines = new StringBuilder();
+        for (Entry e : entries) lines.append(line(e));
+        Files.writeString(manifest, lines);
+    }
+
+    private static String line(Entry e) {
+        ArtifactStore.Artifacts a = e.artifacts();
+        return "{\"id\":\"" + e.id() + "\",\"test\":\"" + e.test() + "\",\"dom\":\"" + slashes(a.dom()) + "\",\"screenshot\":"
+                + (a.screenshot() == null ? "null" : "\"" + slashes(a.screenshot()) + "\"") + "}\n";
+    }
+
+    private static String slashes(Path p) {
+        return p.toString().replace('\\', '/');
+    }
+}
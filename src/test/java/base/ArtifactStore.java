@@ -0,0 +1,161 @@
+package base;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Off-thread, write-once storage for failure artifacts (DOM dumps and screenshots).
+ * <p>
+ * The test thread only grabs the bytes and gets back the report paths; a background writer gzips DOM dumps, stores
+ * each artifact once under {@code target/test-debug/objects} named by its SHA-256 (so identical DOMs from many
+ * failures share one file) and hard-links it into {@code target/surefire-reports/test-debug} under the familiar
+ * {@code <method>-<timestamp>} name. File systems without hard links fall back to a copy. Screenshots are
+ * downscaled and re-encoded by {@link Screenshots} first; near-duplicates can optionally share one stored image.
+ */
+public final class ArtifactStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ArtifactStore.class);
+
+    private static final Path OBJECTS = Path.of("target", "test-debug", "objects");
+    private static final Path REPORT_DIR = Path.of("target", "surefire-reports", "test-debug");
+
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "artifact-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> awaitIdle(Duration.ofSeconds(30)), "artifact-writer-flush"));
+    }
+
+    /** Report-facing paths of one failure's artifacts; {@code screenshot} is null when none was taken. */
+    public record Artifacts(Path dom, Path screenshot) { }
+
+    private ArtifactStore() { }
+
+    /**
+     * Queues the DOM (and screenshot, if any) of a failed test for writing and returns where they will appear.
+     * Returns immediately; use {@link #awaitIdle(Duration)} before reading the files.
+     */
+    public static Artifacts submit(String baseName, String dom, byte[] screenshot) {
+        Path domLink = REPORT_DIR.resolve(baseName + ".html.gz");
+        Path imageLink = screenshot == null ? null : REPORT_DIR.resolve(baseName + "." + Screenshots.extension());
+        // Encoding runs on the screenshot workers while the writer handles earlier artifacts and this DOM
+        Future<Screenshots.Encoded> encoded = screenshot == null ? null : Screenshots.encodeLater(screenshot);
+        writer.execute(() -> {
+            try {
+                byte[] raw = dom.getBytes(StandardCharsets.UTF_8);
+                store(sha256(raw) + ".html.gz", () -> gzip(raw), domLink);
+                if (encoded != null) storeScreenshot(encoded.get(), imageLink);
+            } catch (IOException | UncheckedIOException | ExecutionException e) {
+                log.warn("Failed to write debug artifacts for {}: {}", baseName, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return new Artifacts(domLink, imageLink);
+    }
+
+    /** Blocks until every artifact queued so far has been written, or the timeout elapses. */
+    public static boolean awaitIdle(Duration timeout) {
+        try {
+            // single writer thread: once this marker runs, everything queued before it is on disk
+            writer.submit(() -> { }).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /** Queues a small write (e.g. an index entry) behind the artifacts already submitted. */
+    static void writeLater(IoTask task) {
+        writer.execute(() -> {
+            try {
+                task.run();
+            } catch (IOException e) {
+                log.warn("Failed to write debug artifact metadata: {}", e.getMessage());
+            }
+        });
+    }
+
+    interface IoTask {
+        void run() throws IOException;
+    }
+
+    private interface Content {
+        byte[] bytes() throws IOException;
+    }
+
+    // With screenshot.dedupDistance set, a near-duplicate of an image stored earlier in this run is linked to that
+    // object instead of being stored again; the link is logged because it shows another test's capture
+    private static void storeScreenshot(Screenshots.Encoded image, Path link) throws IOException {
+        Screenshots.Seen match = Screenshots.nearDuplicate(image.dHash());
+        String object;
+        if (match == null) {
+            object = sha256(image.bytes()) + "." + Screenshots.extension();
+            Screenshots.remember(image.dHash(), object, link.getFileName().toString());
+        } else {
+            object = match.objectName();
+            log.info("Screenshot {} is the same image as {} (near-duplicate, not stored again)", link.getFileName(), match.capture());
+        }
+        store(object, image::bytes, link);
+    }
+
+    private static void store(String objectName, Content content, Path link) throws IOException {
+        Files.createDirectories(OBJECTS);
+        Files.createDirectories(link.getParent());
+        Path object = OBJECTS.resolve(objectName);
+        if (!Files.exists(object)) {
+            // pid-suffixed temp name: the writer is single-threaded, but forked JVMs may share the store
+            Path tmp = OBJECTS.resolve(objectName + "." + ProcessHandle.current().pid() + ".tmp");
+            Files.write(tmp, content.bytes());
+            try {
+                Files.move(tmp, object, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException raced) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        Files.deleteIfExists(link);
+        try {
+            Files.createLink(link, object);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(object, link, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(raw);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
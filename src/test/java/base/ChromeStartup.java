@@ -0,0 +1,200 @@
+package base;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Startup-optimized Chrome launches.
+ * <p>
+ * The chromedriver binary is resolved once per JVM; the resolved path is persisted under
+ * {@code ~/.cache/selenium-automation} so later runs skip WebDriverManager (and the network) entirely until the
+ * binary disappears or no longer matches Chrome ({@link #refreshDriver()}).
+ * <p>
+ * In fast mode ({@code -Dchrome.fastStartup}, default true) every session starts from a copy of a pre-warmed
+ * profile template instead of a cold profile, with a curated set of switches that skip first-run work, extensions
+ * and background networking. Images stay on: failure screenshots and the LCP and transfer-size budgets depend on
+ * them. {@code -Dchrome.images=false} turns image decoding off for runs that check neither.
+ */
+public final class ChromeStartup {
+
+    private static final Logger log = LoggerFactory.getLogger(ChromeStartup.class);
+
+    private static final Path CACHE_DIR = Path.of(System.getProperty("driver.cacheDir",
+            Path.of(System.getProperty("user.home"), ".cache", "selenium-automation").toString()));
+    private static final Path DRIVER_PATH_FILE = CACHE_DIR.resolve("chromedriver.path");
+    private static final Path TEMPLATE = CACHE_DIR.resolve("chrome-profile-template");
+    private static final Path CLONES = Path.of("target", "chrome-profiles");
+    private static final AtomicInteger cloneCounter = new AtomicInteger();
+
+    // Switches that cut headless startup work without changing how pages render (images are a separate opt-in)
+    private static final List<String> FAST_FLAGS = List.of(
+            "--no-first-run",
+            "--no-default-browser-check",
+            "--disable-extensions",
+            "--disable-component-extensions-with-background-pages",
+            "--disable-background-networking",
+            "--disable-component-update",
+            "--disable-sync",
+            "--disable-default-apps",
+            "--disable-client-side-phishing-detection",
+            "--metrics-recording-only",
+            "--mute-audio");
+
+    private static boolean resolved;
+    private static String driverPath;
+    private static boolean driverFromCache;
+    private static boolean templateReady;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ChromeStartup::deleteClones, "chrome-profile-cleanup"));
+    }
+
+    private ChromeStartup() { }
+
+    public static boolean fast() {
+        return Boolean.parseBoolean(System.getProperty("chrome.fastStartup", "true"));
+    }
+
+    /**
+     * Points Selenium at a chromedriver binary: the one this JVM already resolved, else the path persisted by an
+     * earlier run, else a fresh WebDriverManager resolution (which is then persisted).
+     */
+    public static synchronized void resolveDriver() {
+        if (resolved) return;
+        try (var ignored = StepTimer.span("driver.resolve")) {
+            String cached = readCachedPath();
+            if (cached != null) {
+                driverFromCache = true;
+                use(cached);
+                return;
+            }
+            WebDriverManager wdm = WebDriverManager.chromedriver();
+            wdm.setup();
+            driverFromCache = false;
+            use(wdm.getDownloadedDriverPath());
+            persist(driverPath);
+        }
+    }
+
+    /**
+     * Drops a persisted driver path that failed to start a session (typically after a Chrome update) and resolves
+     * again. Returns false when the current driver was not taken from the cache, i.e. retrying will not help.
+     */
+    public static synchronized boolean refreshDriver() {
+        if (!driverFromCache) return false;
+        log.warn("Cached chromedriver {} failed to start Chrome; resolving again", driverPath);
+        try {
+            Files.deleteIfExists(DRIVER_PATH_FILE);
+        } catch (IOException ignored) { }
+        resolved = false;
+        driverPath = null;
+        System.clearProperty("webdriver.chrome.driver");
+        resolveDriver();
+        return true;
+    }
+
+    /** Adds the fast-mode switches to options built by {@link TestBase#chromeOptions()}. */
+    static void applyFlags(ChromeOptions options) {
+        options.addArguments(FAST_FLAGS);
+        if (!Boolean.parseBoolean(System.getProperty("chrome.images", "true"))) {
+            options.addArguments("--blink-settings=imagesEnabled=false");
+        }
+    }
+
+    /**
+     * A private copy of the profile template for one session, creating the template on first use. Lock files are
+     * not copied, so many sessions can start from the same template concurrently.
+     */
+    public static Path cloneProfile(ChromeOptions baseOptions) {
+        try (var ignored = StepTimer.span("driver.profileClone")) {
+            ensureTemplate(baseOptions);
+            Path clone = CLONES.resolve("profile-" + ProcessHandle.current().pid() + "-" + cloneCounter.incrementAndGet());
+            copyTree(TEMPLATE, clone);
+            return clone.toAbsolutePath();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clone Chrome profile template " + TEMPLATE, e);
+        }
+    }
+
+    // One throwaway launch fills the template with everything Chrome writes on first start
+    private static synchronized void ensureTemplate(ChromeOptions baseOptions) throws IOException {
+        if (templateReady) return;
+        if (!Files.isDirectory(TEMPLATE.resolve("Default"))) {
+            log.info("Creating Chrome profile template in {}", TEMPLATE);
+            Files.createDirectories(TEMPLATE);
+            ChromeOptions options = new ChromeOptions().merge(baseOptions);
+            options.addArguments("--user-data-dir=" + TEMPLATE.toAbsolutePath());
+            ChromeDriver warmup = new ChromeDriver(options);
+            try {
+                warmup.get("about:blank");
+            } finally {
+                warmup.quit();
+            }
+        }
+        templateReady = true;
+    }
+
+    private static void copyTree(Path from, Path to) throws IOException {
+        try (Stream<Path> paths = Files.walk(from)) {
+            for (Path src : (Iterable<Path>) paths::iterator) {
+                Path rel = from.relativize(src);
+                if (rel.getFileName() != null && rel.getFileName().toString().startsWith("Singleton")) continue;
+                Path dst = to.resolve(rel.toString());
+                if (Files.isDirectory(src)) Files.createDirectories(dst);
+                else if (Files.isRegularFile(src)) Files.copy(src, dst);
+            }
+        }
+    }
+
+    private static void deleteClones() {
+        if (!Files.isDirectory(CLONES)) return;
+        String prefix = "profile-" + ProcessHandle.current().pid() + "-";
+        try (Stream<Path> paths = Files.walk(CLONES)) {
+            paths.filter(p -> CLONES.relativize(p).toString().startsWith(prefix))
+                    .sorted(Comparator.reverseOrder())
+                    .forEach(p -> p.toFile().delete());
+        } catch (IOException | UncheckedIOException ignored) {
+            // best effort; target/ is cleaned by the next mvn clean anyway
+        }
+    }
+
+    private static void use(String path) {
+        resolved = true;
+        driverPath = path;
+        // null: WebDriverManager found no binary to pin; Selenium Manager resolves one at launch
+        if (path != null) System.setProperty("webdriver.chrome.driver", path);
+    }
+
+    private static String readCachedPath() {
+        if (Boolean.getBoolean("driver.refresh")) return null;
+        try {
+            if (!Files.exists(DRIVER_PATH_FILE)) return null;
+            String path = Files.readString(DRIVER_PATH_FILE).trim();
+            return !path.isEmpty() && Files.isExecutable(Path.of(path)) ? path : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void persist(String path) {
+        if (path == null) return;
+        try {
+            Files.createDirectories(CACHE_DIR);
+            Files.writeString(DRIVER_PATH_FILE, path);
+        } catch (IOException e) {
+            log.warn("Failed to cache chromedriver path: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package base;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Sorts a test failure into the causes we see in practice, so only the transient ones are retried.
+ * <p>
+ * The throwable decides most cases. For waits and assertions the live page is probed with one small script
+ * (document state and whether the SPA rendered anything into {@code #root}) rather than a full DOM dump: an empty
+ * root means the test ran before hydration finished, and a probe that cannot reach the browser means the session
+ * died underneath the test.
+ */
+public final class FailureClassifier {
+
+    /** Failure causes; {@link #isTransient()} ones are worth another attempt. */
+    public enum Kind {
+        /** An explicit wait or lookup gave up before the element or condition appeared. */
+        LOCATOR_TIMEOUT(true),
+        /** The page re-rendered between finding an element and using it. */
+        STALE_ELEMENT(true),
+        /** The page was still loading or the SPA had not rendered when the test checked it. */
+        NOT_RENDERED(true),
+        /** Chrome or chromedriver went away; the session has to be replaced. */
+        DRIVER_CRASH(true),
+        /** An assertion failed on a rendered page: a real failure. */
+        ASSERTION(false),
+        /** Anything else (test bugs, unexpected exceptions). */
+        OTHER(false);
+
+        private final boolean transientFailure;
+
+        Kind(boolean transientFailure) {
+            this.transientFailure = transientFailure;
+        }
+
+        public boolean isTransient() {
+            return transientFailure;
+        }
+    }
+
+    /** Result attribute holding the {@link Kind} of a classified failure. */
+    public static final String ATTRIBUTE = "failure.kind";
+
+    // Messages of WebDriverExceptions thrown when the browser process or its DevTools connection is gone
+    private static final List<String> CRASH_MESSAGES = List.of(
+            "chrome not reachable", "disconnected", "session deleted", "invalid session id", "target crashed",
+            "tab crashed");
+
+    private static final String PROBE = "var root = document.getElementById('root') || document.body;"
+            + " return [document.readyState, root ? root.childElementCount : 0];";
+
+    private FailureClassifier() { }
+
+    /**
+     * Classifies {@code failure}; {@code driver} is the session the test ran on, probed for timeouts and
+     * assertions (null skips the probe).
+     */
+    public static Kind classify(Throwable failure, WebDriver driver) {
+        Kind byThrowable = fromThrowable(failure);
+        if (byThrowable == Kind.STALE_ELEMENT || byThrowable == Kind.DRIVER_CRASH || driver == null) return byThrowable;
+        if (byThrowable != Kind.LOCATOR_TIMEOUT && byThrowable != Kind.ASSERTION) return byThrowable;
+        try {
+            List<?> state = (List<?>) ((JavascriptExecutor) driver).executeScript(PROBE);
+            boolean rendered = "complete".equals(state.get(0)) || "interactive".equals(state.get(0));
+            if (!rendered || ((Number) state.get(1)).longValue() == 0) return Kind.NOT_RENDERED;
+            return byThrowable;
+        } catch (WebDriverException e) {
+            return isCrash(e) ? Kind.DRIVER_CRASH : byThrowable;
+        } catch (RuntimeException e) {
+            return byThrowable; // unexpected probe result; keep the throwable's verdict
+        }
+    }
+
+    /** Classification from the throwable (and its causes) alone. */
+    static Kind fromThrowable(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof StaleElementReferenceException) return Kind.STALE_ELEMENT;
+            if (t instanceof WebDriverException w && isCrash(w)) return Kind.DRIVER_CRASH;
+            if (t instanceof TimeoutException || t instanceof NoSuchElementException) return Kind.LOCATOR_TIMEOUT;
+            if (t instanceof AssertionError) return Kind.ASSERTION;
+        }
+        return Kind.OTHER;
+    }
+
+    private static boolean isCrash(WebDriverException e) {
+        if (e instanceof NoSuchSessionException || e instanceof UnreachableBrowserException
+                || e instanceof SessionNotCreatedException) {
+            return true;
+        }
+        // raw message: getMessage() appends build and system info that could match by accident
+        String message = e.getRawMessage() == null ? "" : e.getRawMessage().toLowerCase(Locale.ROOT);
+        return CRASH_MESSAGES.stream().anyMatch(message::contains);
+    }
+}
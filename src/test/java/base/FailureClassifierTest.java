@@ -0,0 +1,40 @@
+package base;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class FailureClassifierTest {
+
+    @Test
+    public void waitsAndLookupsAreLocatorTimeouts() {
+        Assert.assertEquals(FailureClassifier.classify(new TimeoutException("Expected condition failed"), null),
+                FailureClassifier.Kind.LOCATOR_TIMEOUT);
+        Assert.assertEquals(FailureClassifier.classify(new NoSuchElementException("no such element"), null),
+                FailureClassifier.Kind.LOCATOR_TIMEOUT);
+    }
+
+    @Test
+    public void staleAndCrashAreTransient() {
+        Assert.assertEquals(FailureClassifier.classify(new StaleElementReferenceException("stale"), null),
+                FailureClassifier.Kind.STALE_ELEMENT);
+        Assert.assertEquals(FailureClassifier.classify(new NoSuchSessionException("invalid session id"), null),
+                FailureClassifier.Kind.DRIVER_CRASH);
+        Assert.assertEquals(FailureClassifier.classify(
+                new RuntimeException(new WebDriverException("chrome not reachable")), null), FailureClassifier.Kind.DRIVER_CRASH);
+        Assert.assertTrue(FailureClassifier.Kind.DRIVER_CRASH.isTransient());
+    }
+
+    @Test
+    public void assertionsAndOtherErrorsAreNotRetried() {
+        FailureClassifier.Kind assertion = FailureClassifier.classify(new AssertionError("expected [a] but found [b]"), null);
+        Assert.assertEquals(assertion, FailureClassifier.Kind.ASSERTION);
+        Assert.assertFalse(assertion.isTransient());
+        Assert.assertEquals(FailureClassifier.classify(new IllegalStateException("bug"), null), FailureClassifier.Kind.OTHER);
+        Assert.assertFalse(FailureClassifier.classify(new WebDriverException("element click intercepted"), null).isTransient());
+    }
+}
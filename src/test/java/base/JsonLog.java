@@ -0,0 +1,274 @@
+package base;
+
+import org.slf4j.Logger;
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MarkerIgnoringBase;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SLF4J backend of the test framework (bound through {@code org.slf4j.impl.StaticLoggerBinder}).
+ * <p>
+ * Logging threads only format the message and offer the event to a fixed-size ring buffer ({@code log.bufferSize},
+ * default 8192); they never block on it and never touch the console or the disk, so parallel test threads do not
+ * contend on {@code System.out}. When the buffer is full the event is dropped and counted. A single background
+ * thread drains the buffer in batches and writes every event as one JSON line (time, level, logger, thread, test id,
+ * message, stack trace) to {@code target/logs/log-<pid>.jsonl} ({@code -Dlog.dir}), and a readable line to the
+ * console ({@code -Dlog.console=false} turns that off). The test id is the one {@link Tracing} opened on the logging
+ * thread, so log lines join the test's spans.
+ * <p>
+ * {@code -Dlog.level} (default {@code info}) sets the threshold; {@code -Dlog.level.<logger or package>} overrides it
+ * for one logger or package.
+ */
+public final class JsonLog {
+
+    static final int TRACE = 0, DEBUG = 1, INFO = 2, WARN = 3, ERROR = 4;
+    private static final String[] NAMES = {"TRACE", "DEBUG", "INFO", "WARN", "ERROR"};
+
+    private static final Path DIR = Path.of(System.getProperty("log.dir", "target/logs"));
+    private static final boolean CONSOLE = Boolean.parseBoolean(System.getProperty("log.console", "true"));
+    private static final int CAPACITY = Integer.getInteger("log.bufferSize", 8192);
+    private static final int BATCH = 512;
+    private static final DateTimeFormatter CLOCK = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+
+    private static final BlockingQueue<Event> buffer = new ArrayBlockingQueue<>(Math.max(16, CAPACITY));
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final Map<String, Logger> loggers = new ConcurrentHashMap<>();
+    private static volatile boolean closing;
+    private static final Thread writer;
+
+    static {
+        writer = new Thread(JsonLog::drainLoop, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(JsonLog::close, "log-writer-flush"));
+    }
+
+    /** One log call, formatted on the calling thread. */
+    record Event(long epochMillis, int level, String logger, String thread, String testId, String message,
+                 String error) { }
+
+    private JsonLog() { }
+
+    /** The logger named {@code name}; one instance per name. */
+    public static Logger logger(String name) {
+        return loggers.computeIfAbsent(name, n -> new JsonLogger(n, threshold(n)));
+    }
+
+    // ---------- writer thread ----------
+
+    private static void drainLoop() {
+        Path file = DIR.resolve("log-" + ProcessHandle.current().pid() + ".jsonl");
+        List<Event> batch = new ArrayList<>(BATCH);
+        BufferedWriter out = null;
+        try {
+            Files.createDirectories(DIR);
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("Log file " + file + " unavailable, logging to the console only: " + e.getMessage());
+        }
+        try {
+            while (!closing || !buffer.isEmpty()) {
+                Event first = buffer.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                buffer.drainTo(batch, BATCH - 1);
+                StringBuilder console = new StringBuilder();
+                StringBuilder json = new StringBuilder();
+                for (Event e : batch) {
+                    if (CONSOLE) console(console, e);
+                    json.append(json(e)).append('\n');
+                }
+                if (CONSOLE) {
+                    System.out.print(console);
+                    System.out.flush();
+                }
+                if (out != null) {
+                    try {
+                        out.write(json.toString());
+                        out.flush();
+                    } catch (IOException e) {
+                        System.err.println("Log file " + file + " failed, logging to the console only: " + e.getMessage());
+                        out = null;
+                    }
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) { }
+            }
+        }
+    }
+
+    private static void close() {
+        closing = true;
+        try {
+            writer.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Events logged by other shutdown hooks after the writer stopped
+        StringBuilder late = new StringBuilder();
+        Event e;
+        while ((e = buffer.poll()) != null) console(late, e);
+        if (!late.isEmpty()) System.out.print(late);
+        if (dropped.get() > 0) {
+            System.err.println("Log buffer overflowed: " + dropped.get() + " events dropped (raise -Dlog.bufferSize)");
+        }
+    }
+
+    static String json(Event e) {
+        StringBuilder json = new StringBuilder(160);
+        json.append("{\"time\":\"").append(Instant.ofEpochMilli(e.epochMillis())).append("\",\"level\":\"")
+                .append(NAMES[e.level()]).append("\",\"logger\":");
+        Tracing.string(json, e.logger());
+        json.append(",\"thread\":");
+        Tracing.string(json, e.thread());
+        if (e.testId() != null) {
+            json.append(",\"test\":");
+            Tracing.string(json, e.testId());
+        }
+        json.append(",\"message\":");
+        Tracing.string(json, e.message());
+        if (e.error() != null) {
+            json.append(",\"error\":");
+            Tracing.string(json, e.error());
+        }
+        return json.append('}').toString();
+    }
+
+    // HH:mm:ss.SSS [thread] [LEVEL] ShortName - message, the layout slf4j-simple printed before
+    private static void console(StringBuilder out, Event e) {
+        String shortName = e.logger().substring(e.logger().lastIndexOf('.') + 1);
+        out.append(CLOCK.format(LocalTime.ofInstant(Instant.ofEpochMilli(e.epochMillis()), ZoneId.systemDefault())))
+                .append(" [").append(e.thread()).append("] [").append(NAMES[e.level()]).append("] ")
+                .append(shortName).append(" - ").append(e.message()).append('\n');
+        if (e.error() != null) out.append(e.error());
+    }
+
+    // Most specific -Dlog.level.<prefix> of the logger name, else -Dlog.level
+    private static int threshold(String name) {
+        for (String n = name; !n.isEmpty(); n = n.contains(".") ? n.substring(0, n.lastIndexOf('.')) : "") {
+            String v = System.getProperty("log.level." + n);
+            if (v != null) return level(v);
+        }
+        return level(System.getProperty("log.level", "info"));
+    }
+
+    private static int level(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "trace" -> TRACE;
+            case "debug" -> DEBUG;
+            case "warn" -> WARN;
+            case "error" -> ERROR;
+            default -> INFO;
+        };
+    }
+
+    private static void log(String logger, int level, FormattingTuple t) {
+        Thread thread = Thread.currentThread();
+        String error = null;
+        if (t.getThrowable() != null) {
+            StringWriter trace = new StringWriter();
+            t.getThrowable().printStackTrace(new PrintWriter(trace));
+            error = trace.toString();
+        }
+        Event e = new Event(System.currentTimeMillis(), level, logger, thread.getName(), Tracing.currentTestId(),
+                String.valueOf(t.getMessage()), error);
+        if (!buffer.offer(e)) dropped.incrementAndGet();
+    }
+
+    /** Formats on the calling thread and hands the event to the writer. */
+    private static final class JsonLogger extends MarkerIgnoringBase {
+        private final int threshold;
+
+        JsonLogger(String name, int threshold) {
+            this.name = name;
+            this.threshold = threshold;
+        }
+
+        private boolean on(int level) {
+            return level >= threshold;
+        }
+
+        private void at(int level, String msg) {
+            if (on(level)) log(name, level, new FormattingTuple(msg));
+        }
+
+        private void at(int level, String format, Object arg) {
+            if (on(level)) log(name, level, MessageFormatter.format(format, arg));
+        }
+
+        private void at(int level, String format, Object a, Object b) {
+            if (on(level)) log(name, level, MessageFormatter.format(format, a, b));
+        }
+
+        private void at(int level, String format, Object... args) {
+            if (on(level)) log(name, level, MessageFormatter.arrayFormat(format, args));
+        }
+
+        private void at(int level, String msg, Throwable t) {
+            if (on(level)) log(name, level, new FormattingTuple(msg, null, t));
+        }
+
+        @Override public boolean isTraceEnabled() { return on(TRACE); }
+        @Override public void trace(String msg) { at(TRACE, msg); }
+        @Override public void trace(String format, Object arg) { at(TRACE, format, arg); }
+        @Override public void trace(String format, Object a, Object b) { at(TRACE, format, a, b); }
+        @Override public void trace(String format, Object... args) { at(TRACE, format, args); }
+        @Override public void trace(String msg, Throwable t) { at(TRACE, msg, t); }
+
+        @Override public boolean isDebugEnabled() { return on(DEBUG); }
+        @Override public void debug(String msg) { at(DEBUG, msg); }
+        @Override public void debug(String format, Object arg) { at(DEBUG, format, arg); }
+        @Override public void debug(String format, Object a, Object b) { at(DEBUG, format, a, b); }
+        @Override public void debug(String format, Object... args) { at(DEBUG, format, args); }
+        @Override public void debug(String msg, Throwable t) { at(DEBUG, msg, t); }
+
+        @Override public boolean isInfoEnabled() { return on(INFO); }
+        @Override public void info(String msg) { at(INFO, msg); }
+        @Override public void info(String format, Object arg) { at(INFO, format, arg); }
+        @Override public void info(String format, Object a, Object b) { at(INFO, format, a, b); }
+        @Override public void info(String format, Object... args) { at(INFO, format, args); }
+        @Override public void info(String msg, Throwable t) { at(INFO, msg, t); }
+
+        @Override public boolean isWarnEnabled() { return on(WARN); }
+        @Override public void warn(String msg) { at(WARN, msg); }
+        @Override public void warn(String format, Object arg) { at(WARN, format, arg); }
+        @Override public void warn(String format, Object a, Object b) { at(WARN, format, a, b); }
+        @Override public void warn(String format, Object... args) { at(WARN, format, args); }
+        @Override public void warn(String msg, Throwable t) { at(WARN, msg, t); }
+
+        @Override public boolean isErrorEnabled() { return on(ERROR); }
+        @Override public void error(String msg) { at(ERROR, msg); }
+        @Override public void error(String format, Object arg) { at(ERROR, format, arg); }
+        @Override public void error(String format, Object a, Object b) { at(ERROR, format, a, b); }
+        @Override public void error(String format, Object... args) { at(ERROR, format, args); }
+        @Override public void error(String msg, Throwable t) { at(ERROR, msg, t); }
+    }
+}
@@ -0,0 +1,27 @@
+package base;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class JsonLogTest {
+
+    @Test
+    public void eventIsOneJsonLineWithTestAndThread() {
+        JsonLog.Event e = new JsonLog.Event(0, JsonLog.WARN, "base.TestBase", "TestNG-test-1",
+                "testcases.PortfolioTests#heroTextsPresent", "Retrying \"setup\"\nafter TIMEOUT", null);
+        Assert.assertEquals(JsonLog.json(e), "{\"time\":\"1970-01-01T00:00:00Z\",\"level\":\"WARN\","
+                + "\"logger\":\"base.TestBase\",\"thread\":\"TestNG-test-1\","
+                + "\"test\":\"testcases.PortfolioTests#heroTextsPresent\","
+                + "\"message\":\"Retrying \\\"setup\\\"\\nafter TIMEOUT\"}");
+    }
+
+    @Test
+    public void stackTraceIsKeptInTheSameLine() {
+        JsonLog.Event e = new JsonLog.Event(0, JsonLog.ERROR, "x", "main", null, "failed",
+                "java.lang.IllegalStateException: boom\n\tat x.y(Z.java:1)\n");
+        String json = JsonLog.json(e);
+        Assert.assertFalse(json.contains("\n"));
+        Assert.assertFalse(json.contains("\"test\""));
+        Assert.assertTrue(json.endsWith("\"error\":\"java.lang.IllegalStateException: boom\\n\\tat x.y(Z.java:1)\\n\"}"));
+    }
+}
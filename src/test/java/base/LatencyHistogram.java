@@ -0,0 +1,75 @@
+package base;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with HdrHistogram-style log-linear buckets.
+ * <p>
+ * Values are microseconds. Values below 128 are counted exactly; above that every power-of-two range is split into
+ * 64 linear sub-buckets, so any recorded value is reported within about 1.6% of its true value. Recording is a
+ * couple of atomic increments, which keeps it cheap enough to wrap every WebDriver call from many threads.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;          // 128 exact slots
+    private static final int HALF = SUB_COUNT / 2;               // 64 sub-buckets per power of two
+    private static final int MAX_SHIFT = 40;                     // ~2^47 us, far beyond any wait we run
+    private static final int BUCKETS = SUB_COUNT + MAX_SHIFT * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long micros) {
+        long v = Math.max(0, micros);
+        counts.incrementAndGet(indexOf(v));
+        total.incrementAndGet();
+        sum.addAndGet(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        long n = total.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /** Value at the given percentile (0-100], reported as the upper edge of its bucket and capped at the max seen. */
+    public long percentile(double p) {
+        long n = total.get();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    static int indexOf(long v) {
+        if (v < SUB_COUNT) return (int) v;
+        int msb = 63 - Long.numberOfLeadingZeros(v);
+        int shift = msb - (SUB_BITS - 1);
+        if (shift > MAX_SHIFT) return BUCKETS - 1;
+        int sub = (int) (v >>> shift);                           // in [HALF, SUB_COUNT)
+        return SUB_COUNT + (shift - 1) * HALF + (sub - HALF);
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_COUNT) return index;
+        int shift = (index - SUB_COUNT) / HALF + 1;
+        long sub = (index - SUB_COUNT) % HALF + HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+}
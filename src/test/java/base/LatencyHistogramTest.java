@@ -0,0 +1,48 @@
+package base;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void exactBelowSubBucketRange() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int v = 1; v <= 100; v++) h.record(v);
+        Assert.assertEquals(h.count(), 100);
+        Assert.assertEquals(h.percentile(50), 50);
+        Assert.assertEquals(h.percentile(99), 99);
+        Assert.assertEquals(h.percentile(100), 100);
+        Assert.assertEquals(h.mean(), 50.5, 1e-9);
+    }
+
+    @Test
+    public void largeValuesWithinRelativeError() {
+        LatencyHistogram h = new LatencyHistogram();
+        long[] values = {1_000, 25_000, 730_000, 30_000_000};
+        for (long v : values) h.record(v);
+        Assert.assertEquals(h.max(), 30_000_000);
+        for (int i = 0; i < values.length; i++) {
+            double p = 100.0 * (i + 1) / values.length;
+            long reported = h.percentile(p);
+            Assert.assertTrue(reported >= values[i] && reported <= values[i] * 1.02,
+                    "p" + p + " reported " + reported + " for " + values[i]);
+        }
+    }
+
+    @Test
+    public void bucketBoundsRoundTrip() {
+        for (long v = 0; v < 5_000_000; v = v * 3 / 2 + 1) {
+            int idx = LatencyHistogram.indexOf(v);
+            Assert.assertTrue(LatencyHistogram.upperBound(idx) >= v, "upper bound below value " + v);
+            if (idx > 0) Assert.assertTrue(LatencyHistogram.upperBound(idx - 1) < v, "value " + v + " fits an earlier bucket");
+        }
+    }
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        LatencyHistogram h = new LatencyHistogram();
+        Assert.assertEquals(h.percentile(99), 0);
+        Assert.assertEquals(h.mean(), 0.0);
+    }
+}
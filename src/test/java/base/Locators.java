@@ -0,0 +1,71 @@
+package base;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batched element lookups for one session.
+ * <p>
+ * A {@code //*[contains(.,'...')]} XPath walks the whole DOM and costs one WebDriver round-trip per text.
+ * {@link #awaitTexts(String...)} resolves any number of texts in a single {@code executeScript} per poll instead,
+ * returning the deepest element that contains each text. {@link #css(String)} resolves a CSS selector in one script
+ * per poll. Nothing is cached here: a re-render (a {@code form.reset()} after a submit, say) would hand out stale
+ * references, and handles that are worth reusing are memoized by {@link PageSession#handle}, which checks them first.
+ */
+public class Locators {
+
+    private static final String TEXTS_JS = """
+            var texts = arguments[0], found = [];
+            for (var i = 0; i < texts.length; i++) {
+              var el = document.documentElement;
+              if (!el || el.textContent.indexOf(texts[i]) < 0) { found.push(null); continue; }
+              // descend to the deepest element still containing the text
+              for (var moved = true; moved; ) {
+                moved = false;
+                for (var c = el.firstElementChild; c; c = c.nextElementSibling) {
+                  if (c.textContent.indexOf(texts[i]) >= 0) { el = c; moved = true; break; }
+                }
+              }
+              found.push(el);
+            }
+            return found;
+            """;
+
+    private static final String CSS_JS = "return document.querySelector(arguments[0]);";
+
+    private final WebDriver driver;
+    private final WebDriverWait wait;
+
+    public Locators(WebDriver driver, WebDriverWait wait) {
+        this.driver = driver;
+        this.wait = wait;
+    }
+
+    /**
+     * Waits until every text is present in the page and returns, per text, the deepest element containing it.
+     * Equivalent to one {@code //*[contains(.,text)]} presence wait per text, in one round-trip per poll.
+     */
+    public Map<String, WebElement> awaitTexts(String... texts) {
+        return wait.until(d -> {
+            List<?> found = (List<?>) ((JavascriptExecutor) driver).executeScript(TEXTS_JS, List.of(texts));
+            Map<String, WebElement> result = new LinkedHashMap<>();
+            for (int i = 0; i < texts.length; i++) {
+                Object el = found.get(i);
+                if (!(el instanceof WebElement we)) return null;
+                result.put(texts[i], we);
+            }
+            return result;
+        });
+    }
+
+    /** Waits for the first element matching a CSS selector. */
+    public WebElement css(String selector) {
+        return wait.until(d -> (WebElement) ((JavascriptExecutor) driver).executeScript(CSS_JS, selector));
+    }
+}
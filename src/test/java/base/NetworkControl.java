@@ -0,0 +1,224 @@
+package base;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Declarative network control for pooled Chrome sessions, configured in {@code network.properties}.
+ * <p>
+ * {@link #install(WebDriver)} puts a DevTools {@link NetworkInterceptor} in front of the session: requests matching
+ * {@code network.block} get an empty 204, requests matching an active stub get the configured response (the
+ * local fixture's contact submit endpoint, GitHub and LinkedIn), and everything else goes to the network. Every request and the
+ * bytes of passed-through responses are counted per session; {@link #drainTest()} hands the current test's share
+ * to the Spark report.
+ * <p>
+ * If the DevTools bindings do not match the installed Chrome, the block list is still applied through the raw CDP
+ * command {@code Network.setBlockedURLs}; stubs and accounting are then unavailable and tests reach the real sites.
+ */
+public final class NetworkControl {
+
+    private static final Logger log = LoggerFactory.getLogger(NetworkControl.class);
+
+    private static final Properties config = loadConfig();
+    private static final List<String> BLOCK_GLOBS = withQueries(list(setting("network.block", "")));
+    private static final List<Pattern> BLOCK = BLOCK_GLOBS.stream().map(NetworkControl::glob).toList();
+    private static final List<Stub> STUBS = loadStubs();
+
+    private static final Map<WebDriver, Session> sessions = Collections.synchronizedMap(new IdentityHashMap<>());
+    private static final ThreadLocal<Test> currentTest = new ThreadLocal<>();
+
+    /** Canned response for requests whose URL matches {@code url}. */
+    record Stub(String name, Pattern url, int status, String contentType, String body) {
+        HttpResponse response() {
+            return new HttpResponse()
+                    .setStatus(status)
+                    .setHeader("Content-Type", contentType)
+                    .setHeader("Access-Control-Allow-Origin", "*")
+                    .setContent(Contents.utf8String(body));
+        }
+    }
+
+    /** Request counts and bytes received from the network; {@code intercepted} is false in the CDP fallback. */
+    public record Usage(long requests, long blocked, long stubbed, long bytes, boolean intercepted) {
+        Usage minus(Usage before) {
+            return new Usage(requests - before.requests, blocked - before.blocked, stubbed - before.stubbed,
+                    bytes - before.bytes, intercepted);
+        }
+    }
+
+    private static final class Session {
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong blocked = new AtomicLong();
+        final AtomicLong stubbed = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+        volatile boolean intercepted;
+
+        Usage usage() {
+            return new Usage(requests.get(), blocked.get(), stubbed.get(), bytes.get(), intercepted);
+        }
+    }
+
+    private record Test(Session session, Usage before) { }
+
+    private NetworkControl() { }
+
+    public static boolean enabled() {
+        return Boolean.parseBoolean(setting("network.control", "true"));
+    }
+
+    /** Applies block list and stubs to a freshly launched session. Never fails the launch. */
+    static void install(WebDriver driver) {
+        if (!enabled()) return;
+        Session s = new Session();
+        sessions.put(unwrap(driver), s);
+        if (driver instanceof HasDevTools) {
+            try {
+                new NetworkInterceptor(driver, filter(s));
+                s.intercepted = true;
+                return;
+            } catch (RuntimeException e) {
+                log.warn("DevTools network interception unavailable ({}); falling back to Network.setBlockedURLs", e.getMessage());
+            }
+        }
+        if (driver instanceof HasCdp cdp && !BLOCK_GLOBS.isEmpty()) {
+            try {
+                cdp.executeCdpCommand("Network.enable", Map.of());
+                cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", BLOCK_GLOBS));
+            } catch (RuntimeException e) {
+                log.warn("Failed to apply the network block list: {}", e.getMessage());
+            }
+        }
+    }
+
+    /** Drops the counters of a session that is being quit. */
+    static void forget(WebDriver driver) {
+        sessions.remove(unwrap(driver));
+    }
+
+    /** True when stub responses are served for this session (external sites are not contacted). */
+    public static boolean stubbing(WebDriver driver) {
+        Session s = driver == null ? null : sessions.get(unwrap(driver));
+        return s != null && s.intercepted && !STUBS.isEmpty();
+    }
+
+    /** True when this session's requests go through the block list, so its pages load without fonts, images, etc. */
+    public static boolean blocking(WebDriver driver) {
+        return driver != null && !BLOCK_GLOBS.isEmpty() && sessions.containsKey(unwrap(driver));
+    }
+
+    /** Starts per-test accounting on this thread for the session the test leased. */
+    static void beginTest(WebDriver driver) {
+        Session s = sessions.get(unwrap(driver));
+        if (s == null) currentTest.remove();
+        else currentTest.set(new Test(s, s.usage()));
+    }
+
+    /** Network usage of this thread's test since {@link #beginTest(WebDriver)}, or null if not tracked; clears it. */
+    public static Usage drainTest() {
+        Test t = currentTest.get();
+        currentTest.remove();
+        return t == null ? null : t.session().usage().minus(t.before());
+    }
+
+    private static Filter filter(Session s) {
+        return next -> req -> {
+            String url = req.getUri();
+            s.requests.incrementAndGet();
+            if (blocked(url)) {
+                s.blocked.incrementAndGet();
+                return new HttpResponse().setStatus(204);
+            }
+            for (Stub stub : STUBS) {
+                if (stub.url().matcher(url).matches()) {
+                    s.stubbed.incrementAndGet();
+                    return stub.response();
+                }
+            }
+            HttpResponse res = next.execute(req);
+            s.bytes.addAndGet(res.getContent().length());
+            return res;
+        };
+    }
+
+    static boolean blocked(String url) {
+        for (Pattern p : BLOCK) {
+            if (p.matcher(url).matches()) return true;
+        }
+        return false;
+    }
+
+    private static WebDriver unwrap(WebDriver driver) {
+        WebDriver d = driver;
+        while (d instanceof WrapsDriver w && w.getWrappedDriver() != d) d = w.getWrappedDriver();
+        return d;
+    }
+
+    private static List<Stub> loadStubs() {
+        List<Stub> stubs = new ArrayList<>();
+        for (String name : list(setting("network.stubs", ""))) {
+            String prefix = "network.stub." + name + ".";
+            String url = setting(prefix + "url", null);
+            if (url == null) {
+                log.warn("Stub '{}' has no {}url; ignored", name, prefix);
+                continue;
+            }
+            stubs.add(new Stub(name, glob(url), Integer.parseInt(setting(prefix + "status", "200")),
+                    setting(prefix + "contentType", "text/plain; charset=utf-8"), setting(prefix + "body", "")));
+        }
+        return List.copyOf(stubs);
+    }
+
+    // A glob that does not end in '*' also matches the URL followed by a query string: *.png blocks logo.png?v=3
+    private static List<String> withQueries(List<String> globs) {
+        return globs.stream().flatMap(g -> g.endsWith("*") ? Stream.of(g) : Stream.of(g, g + "?*")).toList();
+    }
+
+    // '*' matches any run of characters; everything else is literal (the same syntax Network.setBlockedURLs takes)
+    static Pattern glob(String glob) {
+        StringBuilder re = new StringBuilder();
+        for (String part : glob.split("\\*", -1)) {
+            if (!re.isEmpty()) re.append(".*");
+            re.append(Pattern.quote(part));
+        }
+        return Pattern.compile(re.toString());
+    }
+
+    private static List<String> list(String csv) {
+        return Arrays.stream(csv.split(",")).map(String::trim).filter(v -> !v.isEmpty()).toList();
+    }
+
+    private static String setting(String key, String def) {
+        return System.getProperty(key, config.getProperty(key, def));
+    }
+
+    private static Properties loadConfig() {
+        Properties p = new Properties();
+        try (InputStream in = NetworkControl.class.getResourceAsStream("/network.properties")) {
+            if (in != null) p.load(in);
+        } catch (IOException e) {
+            log.warn("Failed to read network.properties: {}", e.getMessage());
+        }
+        return p;
+    }
+}
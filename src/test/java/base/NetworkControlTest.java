@@ -0,0 +1,27 @@
+package base;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class NetworkControlTest {
+
+    @Test
+    public void extensionGlobsMatchUrlsWithQueryStrings() {
+        Assert.assertTrue(NetworkControl.blocked("https://example.com/assets/logo.png"));
+        Assert.assertTrue(NetworkControl.blocked("https://example.com/assets/logo.png?v=3"));
+        Assert.assertTrue(NetworkControl.blocked("https://example.com/fonts/inter.woff2?display=swap"));
+    }
+
+    @Test
+    public void extensionGlobsDoNotMatchInsideOtherPaths() {
+        Assert.assertFalse(NetworkControl.blocked("https://example.com/assets/app.js"));
+        Assert.assertFalse(NetworkControl.blocked("https://example.com/logo.png.html"));
+        Assert.assertFalse(NetworkControl.blocked("https://cdn.iconify.design/icons.js"));
+    }
+
+    @Test
+    public void hostGlobsStillMatchAnyPath() {
+        Assert.assertTrue(NetworkControl.blocked("https://www.google-analytics.com/g/collect?v=2"));
+        Assert.assertFalse(NetworkControl.blocked("https://nadil.dev/"));
+    }
+}
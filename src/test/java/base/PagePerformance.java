@@ -0,0 +1,248 @@
+package base;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Performance assertions on top of the browser's Navigation, Resource and Paint Timing APIs.
+ * <p>
+ * {@link #check(WebDriver, String)} collects TTFB, FCP, DOMContentLoaded, load, LCP, CLS, request count and
+ * transfer size in one script, compares them with the budgets in {@code perf-budgets.properties} and with the median
+ * of previous runs, and logs a warning for every violation. An in-page navigation keeps the document's navigation
+ * and paint entries, so {@link #mark(WebDriver, String)} and {@link #checkSince(WebDriver, String)} measure it on its
+ * own: requests, transfer size and layout shifts after the mark. Results are kept per thread for the Spark report and
+ * appended to the history file by {@link #exportHistory()}. Checks run in configuration methods, where an exception
+ * would only skip the test, so with {@code perf.mode=fail} the violations are held for the current test and
+ * {@code listeners.PerfBudgetListener} turns them into its failure (see {@link #failingViolations()}).
+ * <p>
+ * A page loaded through the {@link NetworkControl} block list is missing its fonts, images and analytics, so its
+ * transfer size, FCP and LCP are not what users get. Such snapshots are marked {@code intercepted}: they are shown
+ * in the report but never checked against budgets or baselines, and never written to the history.
+ */
+public final class PagePerformance {
+
+    private static final Logger log = LoggerFactory.getLogger(PagePerformance.class);
+
+    // Buffered observers hand back LCP/CLS entries recorded before the script ran via takeRecords()
+    private static final String COLLECT_JS = """
+            var nav = performance.getEntriesByType('navigation')[0];
+            var res = performance.getEntriesByType('resource');
+            var fcp = performance.getEntriesByType('paint').filter(function (p) { return p.name === 'first-contentful-paint'; })[0];
+            var lcp = 0, cls = 0;
+            try {
+              var po = new PerformanceObserver(function () {});
+              po.observe({ type: 'largest-contentful-paint', buffered: true });
+              po.takeRecords().forEach(function (e) { lcp = Math.max(lcp, e.renderTime || e.loadTime || e.startTime); });
+              po.disconnect();
+            } catch (e) {}
+            try {
+              var po2 = new PerformanceObserver(function () {});
+              po2.observe({ type: 'layout-shift', buffered: true });
+              po2.takeRecords().forEach(function (e) { if (!e.hadRecentInput) cls += e.value; });
+              po2.disconnect();
+            } catch (e) {}
+            var bytes = nav ? nav.transferSize : 0;
+            res.forEach(function (r) { bytes += r.transferSize || 0; });
+            return {
+              ttfb_ms: nav ? nav.responseStart - nav.startTime : 0,
+              fcp_ms: fcp ? fcp.startTime : 0,
+              dcl_ms: nav ? nav.domContentLoadedEventEnd - nav.startTime : 0,
+              load_ms: nav ? nav.loadEventEnd - nav.startTime : 0,
+              lcp_ms: lcp,
+              cls: cls,
+              requests: res.length + (nav ? 1 : 0),
+              transfer_kb: bytes / 1024
+            };
+            """;
+
+    // Only entries after the mark set by mark(): the navigation and paint entries still describe the initial load
+    private static final String SINCE_JS = """
+            var marks = performance.getEntriesByName(arguments[0], 'mark');
+            var t0 = marks.length ? marks[marks.length - 1].startTime : 0;
+            var res = performance.getEntriesByType('resource').filter(function (r) { return r.startTime >= t0; });
+            var cls = 0, bytes = 0;
+            try {
+              var po = new PerformanceObserver(function () {});
+              po.observe({ type: 'layout-shift', buffered: true });
+              po.takeRecords().forEach(function (e) { if (!e.hadRecentInput && e.startTime >= t0) cls += e.value; });
+              po.disconnect();
+            } catch (e) {}
+            res.forEach(function (r) { bytes += r.transferSize || 0; });
+            return { cls: cls, requests: res.length, transfer_kb: bytes / 1024 };
+            """;
+
+    private static final Set<String> REGRESSION_METRICS = Set.of("ttfb_ms", "fcp_ms", "dcl_ms", "transfer_kb");
+    private static final String HEADER = "run,label,metric,value";
+
+    private static final Properties config = loadConfig();
+    private static final String RUN = Instant.now().toString();
+    private static final Map<String, List<Double>> history = loadHistory();
+    private static final ConcurrentLinkedQueue<Snapshot> measured = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<List<Snapshot>> currentTest = ThreadLocal.withInitial(ArrayList::new);
+
+    /** One row of a snapshot: value, budget (NaN if none) and baseline median from previous runs (NaN if none). */
+    public record Metric(String name, double value, double budget, double baseline) {
+        public boolean overBudget() {
+            return !Double.isNaN(budget) && value > budget;
+        }
+
+        public boolean regressed(double pct) {
+            return REGRESSION_METRICS.contains(name) && !Double.isNaN(baseline) && baseline > 0
+                    && value > baseline * (1 + pct / 100.0);
+        }
+    }
+
+    /** Metrics of one page; {@code intercepted} snapshots were taken under the block list and carry no violations. */
+    public record Snapshot(String label, List<Metric> metrics, List<String> violations, boolean intercepted) { }
+
+    private PagePerformance() { }
+
+    /** Measures the current page under {@code label}, compares it with budgets and history, and returns the snapshot. */
+    public static Snapshot check(WebDriver driver, String label) {
+        return evaluate(driver, label, (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(COLLECT_JS));
+    }
+
+    /** Marks the start of an in-page navigation, measured later by {@link #checkSince(WebDriver, String)}. */
+    public static void mark(WebDriver driver, String label) {
+        ((JavascriptExecutor) driver).executeScript("performance.mark(arguments[0]);", "perf:" + label);
+    }
+
+    /** Like {@link #check(WebDriver, String)}, for what the page loaded since {@link #mark(WebDriver, String)} only. */
+    public static Snapshot checkSince(WebDriver driver, String label) {
+        Map<?, ?> raw = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(SINCE_JS, "perf:" + label);
+        return evaluate(driver, label, raw);
+    }
+
+    private static Snapshot evaluate(WebDriver driver, String label, Map<?, ?> raw) {
+        double pct = Double.parseDouble(setting("perf.regressionPct", "30"));
+        boolean intercepted = NetworkControl.blocking(driver);
+        List<Metric> metrics = new ArrayList<>();
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<?, ?> e : raw.entrySet()) {
+            String name = (String) e.getKey();
+            double value = ((Number) e.getValue()).doubleValue();
+            Metric m = new Metric(name, value, budget(label, name), median(history.get(label + "|" + name)));
+            metrics.add(m);
+            if (intercepted) continue;
+            if (m.overBudget()) {
+                violations.add(String.format(Locale.ROOT, "%s %s=%.2f exceeds budget %.2f", label, name, value, m.budget()));
+            } else if (m.regressed(pct)) {
+                violations.add(String.format(Locale.ROOT, "%s %s=%.2f regressed >%.0f%% vs median %.2f", label, name, value, pct, m.baseline()));
+            }
+        }
+        Snapshot snapshot = new Snapshot(label, metrics, violations, intercepted);
+        if (!intercepted) measured.add(snapshot);
+        currentTest.get().add(snapshot);
+
+        violations.forEach(v -> log.warn("Performance budget: {}", v));
+        return snapshot;
+    }
+
+    /** Starts a new test on this thread: snapshots left by a test that never reported are dropped. */
+    public static void beginTest() {
+        currentTest.get().clear();
+    }
+
+    /**
+     * Violations measured on this thread since {@link #beginTest()} (setup included) that should fail the test: all of
+     * them in {@code perf.mode=fail}, none otherwise.
+     */
+    public static List<String> failingViolations() {
+        if (!"fail".equalsIgnoreCase(setting("perf.mode", "warn"))) return List.of();
+        List<String> violations = new ArrayList<>();
+        for (Snapshot s : currentTest.get()) violations.addAll(s.violations());
+        return violations;
+    }
+
+    /** Returns the snapshots taken on this thread since the last call, and clears them. */
+    public static List<Snapshot> drainTest() {
+        List<Snapshot> taken = List.copyOf(currentTest.get());
+        currentTest.get().clear();
+        return taken;
+    }
+
+    /** Appends every snapshot of this run to the history file used as the next run's baseline. */
+    public static void exportHistory() throws IOException {
+        if (measured.isEmpty()) return;
+        Path file = Path.of(setting("perf.history", "target/perf/history.csv"));
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        StringBuilder rows = new StringBuilder();
+        if (!Files.exists(file)) rows.append(HEADER).append('\n');
+        Snapshot s;
+        while ((s = measured.poll()) != null) {
+            for (Metric m : s.metrics()) {
+                rows.append(RUN).append(',').append(s.label()).append(',').append(m.name()).append(',')
+                        .append(String.format(Locale.ROOT, "%.3f", m.value())).append('\n');
+            }
+        }
+        Files.writeString(file, rows, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static double budget(String label, String metric) {
+        String v = setting("budget." + label + "." + metric, setting("budget." + metric, null));
+        return v == null ? Double.NaN : Double.parseDouble(v);
+    }
+
+    private static String setting(String key, String def) {
+        return System.getProperty(key, config.getProperty(key, def));
+    }
+
+    private static double median(List<Double> values) {
+        if (values == null || values.isEmpty()) return Double.NaN;
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int n = sorted.size();
+        return n % 2 == 1 ? sorted.get(n / 2) : (sorted.get(n / 2 - 1) + sorted.get(n / 2)) / 2;
+    }
+
+    private static Properties loadConfig() {
+        Properties p = new Properties();
+        try (InputStream in = PagePerformance.class.getResourceAsStream("/perf-budgets.properties")) {
+            if (in != null) p.load(in);
+        } catch (IOException e) {
+            log.warn("Failed to read perf-budgets.properties: {}", e.getMessage());
+        }
+        return p;
+    }
+
+    // label|metric -> values from previous runs
+    private static Map<String, List<Double>> loadHistory() {
+        Map<String, List<Double>> byKey = new HashMap<>();
+        Path file = Path.of(setting("perf.history", "target/perf/history.csv"));
+        if (!Files.exists(file)) return byKey;
+        try {
+            for (String line : Files.readAllLines(file)) {
+                String[] f = line.split(",");
+                if (f.length != 4 || f[0].equals("run")) continue;
+                try {
+                    byKey.computeIfAbsent(f[1] + "|" + f[2], k -> new ArrayList<>()).add(Double.parseDouble(f[3]));
+                } catch (NumberFormatException ignored) { }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read performance history {}: {}", file, e.getMessage());
+        }
+        // Baseline on recent runs only so an old, faster deploy does not flag every run forever
+        int keep = Integer.parseInt(setting("perf.historyRuns", "20"));
+        byKey.replaceAll((k, v) -> v.size() > keep ? new ArrayList<>(v.subList(v.size() - keep, v.size())) : v);
+        return byKey;
+    }
+
+}
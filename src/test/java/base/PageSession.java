@@ -0,0 +1,97 @@
+package base;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Page state of one pooled session, carried across the tests that lease it.
+ * <p>
+ * After a full load the session is stamped with a random token in {@code window}; {@link #canServe(PageState)}
+ * checks the token in one round-trip, so a reload or navigation the tracker did not see is detected and the page
+ * is loaded again instead of trusting stale state. Element handles resolved on the page (navbar link, form fields)
+ * are memoized with {@link #handle(String, Supplier)} and dropped whenever the document changes.
+ */
+public final class PageSession {
+
+    private static final Map<WebDriver, PageSession> sessions = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final WebDriver driver;
+    private final Map<String, WebElement> handles = new HashMap<>();
+    private String token;
+    private PageState state;
+
+    private PageSession(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /** Tracker for a session; created on first use. */
+    public static PageSession of(WebDriver driver) {
+        return sessions.computeIfAbsent(driver, PageSession::new);
+    }
+
+    /** Drops the tracker of a session that is being quit. */
+    static void forget(WebDriver driver) {
+        sessions.remove(driver);
+    }
+
+    /** Current state, or null when unknown (never loaded, dirtied or after a failure). */
+    public PageState state() {
+        return state;
+    }
+
+    /**
+     * True when the page is still the document this tracker stamped and {@code needed} is reachable from the
+     * current state without a reload.
+     */
+    public boolean canServe(PageState needed) {
+        if (state == null || token == null || needed.ordinal() < state.ordinal()) return false;
+        Object same = ((JavascriptExecutor) driver).executeScript("return window.__pageSession === arguments[0];", token);
+        if (Boolean.TRUE.equals(same)) return true;
+        invalidate();
+        return false;
+    }
+
+    /** Marks a freshly loaded document as {@link PageState#HERO}. */
+    public void loaded() {
+        handles.clear();
+        token = UUID.randomUUID().toString();
+        ((JavascriptExecutor) driver).executeScript("window.__pageSession = arguments[0];", token);
+        state = PageState.HERO;
+    }
+
+    public void moveTo(PageState next) {
+        state = next;
+    }
+
+    /** Forgets state and handles; the next test reloads the page. */
+    public void invalidate() {
+        state = null;
+        token = null;
+        handles.clear();
+    }
+
+    /** Memoized element for {@code key} on the current document, resolved with {@code lookup} when missing or stale. */
+    public WebElement handle(String key, Supplier<WebElement> lookup) {
+        WebElement el = handles.get(key);
+        if (el != null) {
+            try {
+                el.isEnabled(); // cheap liveness probe
+                return el;
+            } catch (StaleElementReferenceException e) {
+                handles.remove(key);
+            }
+        }
+        el = lookup.get();
+        handles.put(key, el);
+        return el;
+    }
+}
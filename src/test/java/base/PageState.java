@@ -0,0 +1,17 @@
+package base;
+
+/**
+ * Page states a browser test can require of its session, in the order the suite visits them.
+ * <p>
+ * Moving forward through the list is cheap (in-page navigation on an already loaded page); moving back means
+ * reloading the site. {@code listeners.PageStateInterceptor} sorts tests by this order so a session walks forward
+ * through the states and is reloaded as rarely as possible.
+ */
+public enum PageState {
+    /** Site freshly loaded and hydrated, no section selected. */
+    HERO,
+    /** Links section (same document as {@link #HERO}; external targets are opened in a separate tab). */
+    LINKS,
+    /** Contact section selected through the navbar. */
+    CONTACT
+}
@@ -0,0 +1,21 @@
+package base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the page state a test method starts from. Tests without it are treated as {@link PageState#HERO}.
+ * <p>
+ * Set {@link #dirties()} when the test leaves the page in a state later tests must not inherit (e.g. a submitted
+ * form showing its success message); the session is then reloaded before the next test.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RequiresPage {
+
+    PageState value();
+
+    boolean dirties() default false;
+}
@@ -0,0 +1,38 @@
+package base;
+
+/**
+ * Retry settings shared by test retries ({@code listeners.RetryAnalyzer}) and setup retries
+ * ({@link TestBase#prepare}): up to {@code retry.max} extra attempts (default 2, 0 disables), attempt {@code n}
+ * waiting {@code retry.backoffMs * 2^(n-1)} (default 500 ms) capped at {@code retry.maxBackoffMs} (default 4000 ms).
+ */
+public final class RetryPolicy {
+
+    public static final int MAX_RETRIES = Integer.getInteger("retry.max", 2);
+    private static final long BACKOFF_MS = Long.getLong("retry.backoffMs", 500);
+    private static final long MAX_BACKOFF_MS = Long.getLong("retry.maxBackoffMs", 4_000);
+
+    private RetryPolicy() { }
+
+    /** Delay before the given 1-based retry. */
+    public static long backoff(int retry) {
+        return backoff(retry, BACKOFF_MS, MAX_BACKOFF_MS);
+    }
+
+    /** Exponential backoff for the given 1-based retry, capped at {@code max}. */
+    static long backoff(int retry, long base, long max) {
+        if (base <= 0) return 0;
+        int shift = Math.min(retry - 1, 30);
+        return Math.min(max, base << shift);
+    }
+
+    /** Sleeps for {@code millis}; false if the thread was interrupted, which should end the retries. */
+    public static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package base;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Failure screenshot pipeline used by {@link ArtifactStore}.
+ * <p>
+ * {@link #capture(WebDriver, WebElement)} grabs only the given element when one is passed (falling back to the
+ * viewport). Decoding, downscaling to {@code screenshot.maxWidth} and re-encoding as {@code screenshot.format}
+ * ({@code jpeg} by default, {@code png}, or {@code webp} when an ImageIO WebP plugin is on the classpath) run on a
+ * small worker pool. Byte-identical images are always stored once. Each image also gets a 64-bit difference hash
+ * (dHash); with {@code -Dscreenshot.dedupDistance=N} a screenshot within {@code N} bits of one already stored in this
+ * run is linked to it instead, so a site-wide failure produces one image instead of one per test. That is opt-in: the
+ * hash cannot tell two states of the same section apart (an extra error line, say), and the report would then show
+ * another test's screenshot, so every such link is logged with the capture it reuses.
+ */
+public final class Screenshots {
+
+    private static final Logger log = LoggerFactory.getLogger(Screenshots.class);
+
+    private static final String FORMAT = resolveFormat(System.getProperty("screenshot.format", "jpeg").toLowerCase(Locale.ROOT));
+    private static final int MAX_WIDTH = Integer.getInteger("screenshot.maxWidth", 1280);
+    private static final float QUALITY = Float.parseFloat(System.getProperty("screenshot.quality", "0.8"));
+    // Negative (the default) turns near-duplicate linking off
+    private static final int DEDUP_DISTANCE = Integer.getInteger("screenshot.dedupDistance", -1);
+
+    private static final AtomicInteger workerIds = new AtomicInteger();
+    private static final ExecutorService encoders = Executors.newFixedThreadPool(
+            Integer.getInteger("screenshot.workers", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)), r -> {
+                Thread t = new Thread(r, "screenshot-encoder-" + workerIds.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+    // dHash -> stored object name and the capture it came from; only touched by the single artifact-writer thread
+    private static final List<Seen> seen = new ArrayList<>();
+
+    /** Re-encoded image bytes and the perceptual hash of the original capture. */
+    public record Encoded(byte[] bytes, long dHash) { }
+
+    /** A stored screenshot: its hash, object name and the capture (report file name) that stored it. */
+    record Seen(long dHash, String objectName, String capture) { }
+
+    private Screenshots() { }
+
+    /** PNG bytes of {@code scope} if given and capturable, otherwise of the viewport; null if the driver cannot capture. */
+    public static byte[] capture(WebDriver driver, WebElement scope) {
+        if (scope != null) {
+            try {
+                return scope.getScreenshotAs(OutputType.BYTES);
+            } catch (WebDriverException e) {
+                // zero-sized, detached or off-screen element: fall back to the viewport
+            }
+        }
+        return driver instanceof TakesScreenshot ts ? ts.getScreenshotAs(OutputType.BYTES) : null;
+    }
+
+    /** File extension of encoded screenshots. */
+    public static String extension() {
+        return "jpeg".equals(FORMAT) ? "jpg" : FORMAT;
+    }
+
+    /** Decodes, downscales, hashes and re-encodes a PNG capture on the worker pool. */
+    static Future<Encoded> encodeLater(byte[] png) {
+        return encoders.submit(() -> encode(png));
+    }
+
+    static Encoded encode(byte[] png) throws IOException {
+        BufferedImage src = ImageIO.read(new ByteArrayInputStream(png));
+        if (src == null) throw new IOException("Screenshot is not a readable image");
+        long hash = dHash(src);
+        if ("png".equals(FORMAT) && (MAX_WIDTH <= 0 || src.getWidth() <= MAX_WIDTH)) {
+            return new Encoded(png, hash); // nothing to change; keep the original bytes
+        }
+        BufferedImage out = scale(src, MAX_WIDTH > 0 && src.getWidth() > MAX_WIDTH ? MAX_WIDTH : src.getWidth());
+        return new Encoded(write(out), hash);
+    }
+
+    /**
+     * A stored screenshot within {@code screenshot.dedupDistance} bits of {@code dHash}, or null (always, while linking
+     * is off). Artifact-writer thread only.
+     */
+    static Seen nearDuplicate(long dHash) {
+        if (DEDUP_DISTANCE < 0) return null;
+        for (Seen s : seen) {
+            if (Long.bitCount(s.dHash() ^ dHash) <= DEDUP_DISTANCE) return s;
+        }
+        return null;
+    }
+
+    /** Records a newly stored screenshot for later {@link #nearDuplicate(long)} lookups. Artifact-writer thread only. */
+    static void remember(long dHash, String objectName, String capture) {
+        if (DEDUP_DISTANCE >= 0) seen.add(new Seen(dHash, objectName, capture));
+    }
+
+    /**
+     * 64-bit difference hash: the image is reduced to 9x8 grey pixels and each bit records whether a pixel is
+     * brighter than its right neighbour. Re-renders of the same page differ in a few bits at most; different
+     * pages differ in dozens.
+     */
+    static long dHash(BufferedImage img) {
+        // Mean luminance of a 9x8 grid of cells; averaging every pixel keeps the hash stable under small re-renders
+        double[][] grey = new double[8][9];
+        int w = img.getWidth(), h = img.getHeight();
+        for (int cy = 0; cy < 8; cy++) {
+            int y0 = cy * h / 8, y1 = Math.max(y0 + 1, (cy + 1) * h / 8);
+            for (int cx = 0; cx < 9; cx++) {
+                int x0 = cx * w / 9, x1 = Math.max(x0 + 1, (cx + 1) * w / 9);
+                double sum = 0;
+                for (int y = y0; y < Math.min(y1, h); y++) {
+                    for (int x = x0; x < Math.min(x1, w); x++) {
+                        int rgb = img.getRGB(x, y);
+                        sum += 0.299 * ((rgb >> 16) & 0xff) + 0.587 * ((rgb >> 8) & 0xff) + 0.114 * (rgb & 0xff);
+                    }
+                }
+                grey[cy][cx] = sum / ((double) (Math.min(y1, h) - y0) * (Math.min(x1, w) - x0));
+            }
+        }
+        long hash = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                hash = (hash << 1) | (grey[y][x] > grey[y][x + 1] ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    // Always renders onto an opaque RGB canvas: JPEG has no alpha channel
+    private static BufferedImage scale(BufferedImage src, int width) {
+        int height = Math.max(1, (int) Math.round(src.getHeight() * (double) width / src.getWidth()));
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+        g.drawImage(src, 0, 0, width, height, null);
+        g.dispose();
+        return out;
+    }
+
+    private static byte[] write(BufferedImage img) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(FORMAT);
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (!"png".equals(FORMAT) && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null) param.setCompressionType(param.getCompressionTypes()[0]);
+                param.setCompressionQuality(QUALITY);
+            }
+            writer.write(null, new IIOImage(img, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    // WebP has no writer in the JDK; use it only when a plugin registered one
+    private static String resolveFormat(String requested) {
+        String format = "jpg".equals(requested) ? "jpeg" : requested;
+        if (ImageIO.getImageWritersByFormatName(format).hasNext()) return format;
+        log.warn("No ImageIO writer for screenshot.format={}; using jpeg", requested);
+        return "jpeg";
+    }
+}
@@ -0,0 +1,87 @@
+package base;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class ScreenshotsTest {
+
+    @Test
+    public void identicalPagesHashEqual() {
+        Assert.assertEquals(Screenshots.dHash(page(Color.WHITE, "Contact")), Screenshots.dHash(page(Color.WHITE, "Contact")));
+    }
+
+    @Test
+    public void smallRenderDifferencesStayWithinDedupDistance() {
+        BufferedImage a = page(Color.WHITE, "Contact");
+        BufferedImage b = page(Color.WHITE, "Contact");
+        // a blinking caret and a few anti-aliasing pixels
+        for (int y = 300; y < 320; y++) b.setRGB(640, y, 0x000000);
+        for (int x = 0; x < 40; x++) b.setRGB(900 + x, 500, 0x777777);
+        Assert.assertTrue(Long.bitCount(Screenshots.dHash(a) ^ Screenshots.dHash(b)) <= 4);
+    }
+
+    @Test
+    public void nearDuplicateLinkingIsOffByDefault() {
+        long hash = Screenshots.dHash(page(Color.WHITE, "Contact"));
+        Screenshots.remember(hash, "stored.jpg", "first-1.jpg");
+        Assert.assertNull(Screenshots.nearDuplicate(hash));
+    }
+
+    @Test
+    public void differentPagesHashFarApart() {
+        long light = Screenshots.dHash(page(Color.WHITE, "Contact"));
+        long error = Screenshots.dHash(errorPage());
+        Assert.assertTrue(Long.bitCount(light ^ error) > 10, "distance " + Long.bitCount(light ^ error));
+    }
+
+    @Test
+    public void encodeDownscalesToMaxWidth() throws IOException {
+        BufferedImage wide = new BufferedImage(2560, 1440, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = wide.createGraphics();
+        g.setColor(Color.BLUE);
+        g.fillRect(0, 0, 2560, 1440);
+        g.dispose();
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(wide, "png", png);
+
+        Screenshots.Encoded encoded = Screenshots.encode(png.toByteArray());
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(encoded.bytes()));
+        Assert.assertEquals(decoded.getWidth(), 1280);
+        Assert.assertEquals(decoded.getHeight(), 720);
+    }
+
+    // A header bar, a heading-like block and a form-like block on a plain background
+    private static BufferedImage page(Color background, String section) {
+        BufferedImage img = new BufferedImage(1280, 720, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(background);
+        g.fillRect(0, 0, 1280, 720);
+        g.setColor(new Color(30, 30, 60));
+        g.fillRect(0, 0, 1280, 80);
+        g.setColor(Color.DARK_GRAY);
+        g.fillRect(100, 160, 40 * section.length(), 60);
+        g.setColor(new Color(200, 200, 210));
+        g.fillRect(100, 260, 600, 360);
+        g.dispose();
+        return img;
+    }
+
+    private static BufferedImage errorPage() {
+        BufferedImage img = new BufferedImage(1280, 720, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        for (int x = 0; x < 1280; x += 160) {
+            g.setColor(x / 160 % 2 == 0 ? Color.BLACK : Color.LIGHT_GRAY);
+            g.fillRect(x, 0, 160, 720);
+        }
+        g.dispose();
+        return img;
+    }
+}
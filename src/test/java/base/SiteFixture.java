@@ -0,0 +1,149 @@
+package base;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the portfolio site, served from {@code src/test/resources/fixture/site}.
+ * <p>
+ * The snapshot renders the same {@code #root} SPA structure the tests assert on (hero, Skills, Projects, Links and
+ * the Contact form) and {@code POST /api/contact} acknowledges form submissions. Files are read from the classpath
+ * once and served from memory, so page loads measure the browser rather than the network.
+ * <p>
+ * Enable with {@code -Dsite=local}; {@code -Dfixture.port} pins the port (default: ephemeral) and
+ * {@code -Dfixture.submitDelayMs} adds artificial latency to the submit endpoint.
+ */
+public final class SiteFixture {
+
+    private static final Logger log = LoggerFactory.getLogger(SiteFixture.class);
+
+    private static final String RESOURCE_ROOT = "/fixture/site/";
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "index.html", "text/html; charset=utf-8",
+            "app.js", "text/javascript; charset=utf-8",
+            "styles.css", "text/css; charset=utf-8");
+    private static final byte[] SUBMIT_OK = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+
+    private static SiteFixture instance;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, byte[]> files;
+    private final long submitDelayMs;
+    private final AtomicLong submissions = new AtomicLong();
+
+    private SiteFixture(int port, long submitDelayMs) throws IOException {
+        this.files = loadFiles();
+        this.submitDelayMs = submitDelayMs;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/contact", this::handleSubmit);
+        server.createContext("/", this::handleStatic);
+        server.start();
+    }
+
+    /** Starts the fixture once per JVM and returns it; later calls return the running instance. */
+    public static synchronized SiteFixture start() {
+        if (instance == null) {
+            try {
+                instance = new SiteFixture(Integer.getInteger("fixture.port", 0), Long.getLong("fixture.submitDelayMs", 0));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to start local site fixture", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(SiteFixture::stop, "site-fixture-shutdown"));
+            log.info("Local site fixture listening on {}", instance.url());
+        }
+        return instance;
+    }
+
+    public static synchronized void stop() {
+        if (instance == null) return;
+        instance.server.stop(0);
+        instance.executor.shutdownNow();
+        instance = null;
+    }
+
+    /** Base URL of the running fixture, with a trailing slash like the deployed site. */
+    public String url() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    /** Number of contact form submissions accepted so far. */
+    public long submissions() {
+        return submissions.get();
+    }
+
+    private void handleStatic(HttpExchange ex) throws IOException {
+        try (ex) {
+            String path = ex.getRequestURI().getPath();
+            String name = path.equals("/") ? "index.html" : path.substring(1);
+            byte[] body = files.get(name);
+            if (body == null) {
+                ex.sendResponseHeaders(404, -1);
+                return;
+            }
+            ex.getResponseHeaders().set("Content-Type", CONTENT_TYPES.get(name));
+            ex.getResponseHeaders().set("Cache-Control", "no-cache");
+            boolean head = "HEAD".equals(ex.getRequestMethod());
+            ex.sendResponseHeaders(200, head ? -1 : body.length);
+            if (!head) {
+                try (OutputStream out = ex.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        }
+    }
+
+    private void handleSubmit(HttpExchange ex) throws IOException {
+        try (ex) {
+            if (!"POST".equals(ex.getRequestMethod())) {
+                ex.sendResponseHeaders(405, -1);
+                return;
+            }
+            // Drain the body so keep-alive connections stay usable; the stub does not inspect it
+            try (InputStream in = ex.getRequestBody()) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            if (submitDelayMs > 0) {
+                try {
+                    Thread.sleep(submitDelayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            submissions.incrementAndGet();
+            ex.getResponseHeaders().set("Content-Type", "application/json");
+            ex.sendResponseHeaders(200, SUBMIT_OK.length);
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(SUBMIT_OK);
+            }
+        }
+    }
+
+    private static Map<String, byte[]> loadFiles() throws IOException {
+        Map<String, byte[]> loaded = new HashMap<>();
+        for (String name : CONTENT_TYPES.keySet()) {
+            try (InputStream in = SiteFixture.class.getResourceAsStream(RESOURCE_ROOT + name)) {
+                if (in == null) throw new IOException("Missing fixture resource " + RESOURCE_ROOT + name);
+                loaded.put(name, in.readAllBytes());
+            }
+        }
+        return Map.copyOf(loaded);
+    }
+}
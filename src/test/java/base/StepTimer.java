@@ -0,0 +1,160 @@
+package base;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-step latency instrumentation for WebDriver sessions.
+ * <p>
+ * Drivers wrapped with {@link #decorate(WebDriver)} report every WebDriver/WebElement call (e.g. {@code driver.get},
+ * {@code driver.executeScript}, {@code element.sendKeys}) through Selenium's {@link WebDriverListener}; coarser steps
+ * such as SPA hydration or a form submit are timed with {@link #span(String)}. Durations go into a suite-wide
+ * {@link LatencyHistogram} per step and into a breakdown for the test currently running on the thread, which
+ * {@code listeners.ExtentTestListener} adds to the Spark report. Every call and step is also emitted as a span of the
+ * test's trace through {@link Tracing}.
+ */
+public class StepTimer implements WebDriverListener {
+
+    private static final StepTimer INSTANCE = new StepTimer();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Map<String, StepStats>> currentTest = ThreadLocal.withInitial(LinkedHashMap::new);
+    private static final ThreadLocal<Deque<Tracing.Scope>> calls = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /** Count and total/max time of one step within a single test. */
+    public static final class StepStats {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        public long count() { return count; }
+        public double totalMillis() { return totalNanos / 1e6; }
+        public double maxMillis() { return maxNanos / 1e6; }
+    }
+
+    /** Timed region; close it (try-with-resources) to record the step. */
+    public record Span(Tracing.Scope scope) implements AutoCloseable {
+        @Override
+        public void close() {
+            record(scope.name(), System.nanoTime() - scope.startNanos());
+            Tracing.end(scope, null);
+        }
+    }
+
+    public static WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(INSTANCE).decorate(driver);
+    }
+
+    public static Span span(String step) {
+        return new Span(Tracing.start(step));
+    }
+
+    public static void record(String step, long nanos) {
+        histograms.computeIfAbsent(step, k -> new LatencyHistogram()).record(nanos / 1_000);
+        currentTest.get().computeIfAbsent(step, k -> new StepStats()).add(nanos);
+    }
+
+    /** Starts a fresh per-test breakdown on this thread; called before the first configuration method of a test. */
+    public static void beginTest() {
+        currentTest.get().clear();
+    }
+
+    /** Returns this thread's per-test breakdown, slowest step first, and clears it. */
+    public static Map<String, StepStats> drainTest() {
+        Map<String, StepStats> steps = currentTest.get();
+        Map<String, StepStats> sorted = new LinkedHashMap<>();
+        steps.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().totalNanos, a.getValue().totalNanos))
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        steps.clear();
+        return sorted;
+    }
+
+    /**
+     * Writes p50/p95/p99 per step to {@code latency.json} and {@code latency.csv} in {@code dir}, and appends the
+     * same rows to {@code history.csv} so percentiles can be compared across runs.
+     */
+    public static void export(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Map<String, LatencyHistogram> snapshot = new TreeMap<>(histograms);
+        String runAt = Instant.now().toString();
+
+        StringBuilder csv = new StringBuilder("step,count,p50_ms,p95_ms,p99_ms,max_ms,mean_ms\n");
+        StringBuilder json = new StringBuilder("{\n  \"generatedAt\": \"" + runAt + "\",\n  \"steps\": [");
+        StringBuilder history = new StringBuilder();
+        boolean first = true;
+        for (Map.Entry<String, LatencyHistogram> e : snapshot.entrySet()) {
+            LatencyHistogram h = e.getValue();
+            String row = String.format(Locale.ROOT, "%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f", e.getKey(), h.count(),
+                    h.percentile(50) / 1e3, h.percentile(95) / 1e3, h.percentile(99) / 1e3, h.max() / 1e3, h.mean() / 1e3);
+            csv.append(row).append('\n');
+            history.append(runAt).append(',').append(row).append('\n');
+            json.append(first ? "\n" : ",\n").append(String.format(Locale.ROOT,
+                    "    {\"step\": \"%s\", \"count\": %d, \"p50_ms\": %.3f, \"p95_ms\": %.3f, \"p99_ms\": %.3f, \"max_ms\": %.3f, \"mean_ms\": %.3f}",
+                    e.getKey().replace("\"", "\\\""), h.count(), h.percentile(50) / 1e3, h.percentile(95) / 1e3,
+                    h.percentile(99) / 1e3, h.max() / 1e3, h.mean() / 1e3));
+            first = false;
+        }
+        json.append("\n  ]\n}\n");
+
+        Files.writeString(dir.resolve("latency.csv"), csv);
+        Files.writeString(dir.resolve("latency.json"), json);
+        Path historyFile = dir.resolve("history.csv");
+        if (!Files.exists(historyFile)) Files.writeString(historyFile, "run," + csv.substring(0, csv.indexOf("\n") + 1));
+        Files.writeString(historyFile, history, StandardOpenOption.APPEND);
+    }
+
+    // ---------- WebDriverListener ----------
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        calls.get().push(Tracing.start(stepName(target, method)));
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finishCall(null);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finishCall(e.getTargetException());
+    }
+
+    private static void finishCall(Throwable error) {
+        Tracing.Scope call = calls.get().poll();
+        if (call == null) return;
+        record(call.name(), System.nanoTime() - call.startNanos());
+        Tracing.end(call, error);
+    }
+
+    private static String stepName(Object target, Method method) {
+        String owner;
+        if (target instanceof WebElement) owner = "element";
+        else if (target instanceof WebDriver) owner = "driver";
+        else owner = method.getDeclaringClass().getSimpleName();
+        return owner + "." + method.getName();
+    }
+}
@@ -1,5 +1,413 @@
 package base;
 
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.BeforeMethod;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base class for browser tests backed by a bounded pool of reusable ChromeDriver sessions.
+ * <p>
+ * Launching Chrome is the most expensive step of the suite, so sessions are pre-warmed once per JVM
+ * and leased to test threads instead of being started per class. A released session is reset
+ * (extra tabs closed, cookies and web storage cleared) before it is handed out again, and a session
+ * that no longer answers is quit and replaced by a fresh one. The loaded page itself is kept, so tests
+ * can pick up where the previous lease left off through {@link PageSession}.
+ * <p>
+ * Each test method runs on its own leased session held in a {@link ThreadLocal}, so the suite can run
+ * with {@code parallel="methods"} without sharing a browser between threads.
+ * <p>
+ * Configure with {@code -Ddriver.pool.size=N} (defaults to the suite thread count, see
+ * {@code listeners.ParallelSuiteConfigurer}) and the existing {@code CHROME_BIN} switch. Sessions are headless
+ * unless {@code -Dheadless=false} (or {@code CHROME_HEADLESS=false}) asks for a visible window.
+ */
 public class TestBase {
-    
+
+    private static final Logger log = LoggerFactory.getLogger(TestBase.class);
+
+    private static final String DEPLOYED_SITE = "https://nadildulran.netlify.app/";
+    private static final long LEASE_TIMEOUT_SECONDS = Long.getLong("driver.pool.leaseTimeoutSeconds", 300);
+    protected static final Duration WAIT_TIMEOUT = Duration.ofSeconds(30);
+    // Upper bound for in-page event-driven waits (see Waits); kept above WAIT_TIMEOUT so the page-side timer fires first
+    private static final Duration SCRIPT_TIMEOUT = Duration.ofMinutes(2);
+
+    private static final BlockingQueue<WebDriver> idle = new LinkedBlockingQueue<>();
+    private static final AtomicInteger created = new AtomicInteger();
+    // session -> the window it was launched with, which reset() keeps
+    private static final Map<WebDriver, String> homeWindows = Collections.synchronizedMap(new IdentityHashMap<>());
+    private static volatile boolean started;
+    private static volatile boolean closed;
+    private static volatile int poolSize;
+
+    /** Result attribute listing the {@link FailureClassifier.Kind}s that {@link #prepare} retried before the test ran. */
+    public static final String SETUP_RETRIES = "setup.retries";
+
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+
+    // ---------- per-test session ----------
+
+    @BeforeMethod(alwaysRun = true)
+    public void acquireDriver(Method method) {
+        // First configuration method of every test: start its latency breakdown and trace here
+        StepTimer.beginTest();
+        PagePerformance.beginTest();
+        Tracing.beginTest(getClass().getName() + "#" + method.getName());
+        bind(lease());
+    }
+
+    private static void bind(WebDriver d) {
+        NetworkControl.beginTest(d);
+        driver.set(d);
+    }
+
+    /**
+     * Runs the page preparation of a subclass's {@code @BeforeMethod}. A failing configuration method is never
+     * classified or retried, and TestNG skips the test and the rest of its class, so transient failures (see
+     * {@link FailureClassifier}) are retried here with {@link RetryPolicy}: the page is invalidated so {@code steps}
+     * start from a fresh load, and a crashed session is replaced first. The kinds retried are recorded on
+     * {@code setup} under {@link #SETUP_RETRIES} (TestNG copies them onto the test's result).
+     */
+    protected void prepare(ITestResult setup, Runnable steps) {
+        List<FailureClassifier.Kind> retried = new ArrayList<>();
+        while (true) {
+            try {
+                steps.run();
+                break;
+            } catch (RuntimeException e) {
+                FailureClassifier.Kind kind = FailureClassifier.classify(e, driver.get());
+                if (!kind.isTransient() || retried.size() >= RetryPolicy.MAX_RETRIES) throw e;
+                retried.add(kind);
+                long delay = RetryPolicy.backoff(retried.size());
+                log.warn("Retrying setup ({}, attempt {} of {}) in {} ms: {}", kind, retried.size() + 1,
+                        RetryPolicy.MAX_RETRIES + 1, delay, e.getMessage());
+                WebDriver d = driver.get();
+                if (kind == FailureClassifier.Kind.DRIVER_CRASH) {
+                    discard(d);
+                    bind(lease());
+                } else {
+                    PageSession.of(d).invalidate();
+                }
+                if (!RetryPolicy.pause(delay)) throw e;
+            }
+        }
+        if (!retried.isEmpty()) setup.setAttribute(SETUP_RETRIES, List.copyOf(retried));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void releaseDriver(ITestResult result) {
+        WebDriver d = driver.get();
+        driver.remove();
+        try {
+            // A crashed session would only fail the next lease's health check: replace it right away
+            if (d != null && result.getAttribute(FailureClassifier.ATTRIBUTE) == FailureClassifier.Kind.DRIVER_CRASH) {
+                log.info("Replacing crashed Chrome session after {}", result.getMethod().getMethodName());
+                discard(d);
+            } else {
+                release(d);
+            }
+        } finally {
+            // Last configuration method of every test (subclass @AfterMethods run first): no artifacts can follow
+            ArtifactIndex.complete(result);
+            Tracing.endTest(result);
+        }
+    }
+
+    /** Session leased to the current test thread. */
+    protected WebDriver getDriver() {
+        return driver.get();
+    }
+
+    /** Session leased to the calling test thread, or null outside a test (used by the retry analyzer). */
+    public static WebDriver currentDriver() {
+        return driver.get();
+    }
+
+    /**
+     * Explicit wait on the current thread's session for the call site named {@code condition}: its timeout and polling
+     * are learned from that site's earlier waits (see {@link AdaptiveWait}), {@code WAIT_TIMEOUT} at most. Lookups that
+     * resolve at once and lookups that follow a navigation get separate names, so one never shortens the other.
+     */
+    protected WebDriverWait getWait(String condition) {
+        return AdaptiveWait.webDriverWait(driver.get(), condition, WAIT_TIMEOUT);
+    }
+
+    /** Batched lookups on the current thread's session, waiting as {@link #getWait(String)} does for {@code condition}. */
+    protected Locators locators(String condition) {
+        return new Locators(driver.get(), getWait(condition));
+    }
+
+    /** Page state and memoized handles of the current thread's session; they travel with the pooled session. */
+    protected PageSession pageSession() {
+        return PageSession.of(driver.get());
+    }
+
+    /**
+     * Site under test: {@code -Dbase.url=...} if given, the in-process {@link SiteFixture} with {@code -Dsite=local},
+     * otherwise the deployed portfolio.
+     */
+    public static String baseUrl() {
+        String explicit = System.getProperty("base.url");
+        if (explicit != null && !explicit.isBlank()) return explicit;
+        if ("local".equalsIgnoreCase(System.getProperty("site", System.getenv().getOrDefault("SITE", "")))) {
+            return SiteFixture.start().url();
+        }
+        return DEPLOYED_SITE;
+    }
+
+    // ---------- pool lifecycle ----------
+
+    /** Launches the configured number of sessions in parallel the first time the pool is used. */
+    private static synchronized void ensureStarted() {
+        if (started) return;
+        started = true;
+        // Read lazily so ParallelSuiteConfigurer can size the pool to the suite thread count first
+        poolSize = Math.max(1, Integer.getInteger("driver.pool.size", 1));
+        ChromeStartup.resolveDriver();
+        Runtime.getRuntime().addShutdownHook(new Thread(TestBase::shutdownPool, "driver-pool-shutdown"));
+
+        ExecutorService launcher = Executors.newFixedThreadPool(poolSize);
+        try {
+            List<Future<WebDriver>> warming = new ArrayList<>();
+            for (int i = 0; i < poolSize; i++) {
+                created.incrementAndGet();
+                warming.add(launcher.submit(TestBase::launch));
+            }
+            for (Future<WebDriver> f : warming) {
+                try {
+                    idle.add(f.get());
+                } catch (Exception e) {
+                    // launch() already freed the slot; it is retried lazily on the next lease
+                    log.warn("Failed to pre-warm a Chrome session: {}", e.getMessage());
+                }
+            }
+        } finally {
+            launcher.shutdown();
+        }
+    }
+
+    /**
+     * Leases a healthy session from the pool, launching one if a slot is free, otherwise blocking
+     * until another thread releases its session.
+     */
+    public static WebDriver lease() {
+        if (closed) throw new IllegalStateException("Driver pool has been shut down");
+        ensureStarted();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(LEASE_TIMEOUT_SECONDS);
+        while (true) {
+            WebDriver d = idle.poll();
+            if (d == null && reserveSlot()) {
+                return launch();
+            }
+            if (d == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Timed out waiting " + LEASE_TIMEOUT_SECONDS + "s for a pooled driver (pool size " + poolSize + ")");
+                }
+                try {
+                    d = idle.poll(Math.min(remaining, TimeUnit.SECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a pooled driver", e);
+                }
+                if (d == null) continue;
+            }
+            if (isAlive(d)) return d;
+            discard(d);
+        }
+    }
+
+    /** Returns a leased session to the pool after resetting its state; crashed sessions are recycled. */
+    public static void release(WebDriver d) {
+        if (d == null) return;
+        if (closed) {
+            quietQuit(d);
+            return;
+        }
+        try {
+            reset(d);
+            idle.add(d);
+        } catch (WebDriverException e) {
+            log.warn("Recycling pooled driver that failed to reset: {}", e.getMessage());
+            discard(d);
+        }
+    }
+
+    /** Quits a session and frees its slot so the next lease launches a replacement. */
+    public static void discard(WebDriver d) {
+        homeWindows.remove(d);
+        PageSession.forget(d);
+        NetworkControl.forget(d);
+        quietQuit(d);
+        created.decrementAndGet();
+    }
+
+    /** Quits every idle session. Safe to call more than once. */
+    public static synchronized void shutdownPool() {
+        closed = true;
+        WebDriver d;
+        while ((d = idle.poll()) != null) {
+            homeWindows.remove(d);
+            PageSession.forget(d);
+            NetworkControl.forget(d);
+            quietQuit(d);
+            created.decrementAndGet();
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void closeDriverPool() {
+        shutdownPool();
+        ArtifactStore.awaitIdle(Duration.ofSeconds(30));
+        Tracing.flush(Duration.ofSeconds(10));
+    }
+
+    // ---------- session helpers ----------
+
+    private static boolean reserveSlot() {
+        while (true) {
+            int c = created.get();
+            if (c >= poolSize) return false;
+            if (created.compareAndSet(c, c + 1)) return true;
+        }
+    }
+
+    private static WebDriver launch() {
+        try {
+            WebDriver d;
+            try (var ignored = StepTimer.span("driver.launch")) {
+                long start = System.nanoTime();
+                ChromeOptions options = chromeOptions();
+                if (ChromeStartup.fast()) {
+                    options.addArguments("--user-data-dir=" + ChromeStartup.cloneProfile(options));
+                }
+                ChromeDriver chrome = startChrome(options);
+                log.info("Chrome session started in {} ms (fast startup {})",
+                        (System.nanoTime() - start) / 1_000_000, ChromeStartup.fast() ? "on" : "off");
+                // Block list and stubs from network.properties, installed on the undecorated session
+                NetworkControl.install(chrome);
+                d = StepTimer.decorate(chrome);
+            }
+            d.manage().timeouts().scriptTimeout(SCRIPT_TIMEOUT);
+            homeWindows.put(d, d.getWindowHandle());
+            return d;
+        } catch (RuntimeException e) {
+            created.decrementAndGet();
+            throw e;
+        }
+    }
+
+    // A cached chromedriver stops matching Chrome after a browser update: resolve again once and retry
+    private static ChromeDriver startChrome(ChromeOptions options) {
+        try {
+            return new ChromeDriver(options);
+        } catch (SessionNotCreatedException e) {
+            if (!ChromeStartup.refreshDriver()) throw e;
+            return new ChromeDriver(options);
+        }
+    }
+
+    private static boolean isAlive(WebDriver d) {
+        try {
+            d.getWindowHandles();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /** Closes every window but the session's own and clears cookies and web storage. */
+    private static void reset(WebDriver d) {
+        // getWindowHandles() has no defined order, so the window to keep is the one recorded at launch
+        Set<String> handles = d.getWindowHandles();
+        String keep = homeWindows.get(d);
+        if (keep == null || !handles.contains(keep)) {
+            // a test closed the first window itself: any survivor becomes the session's window from now on
+            keep = handles.iterator().next();
+            homeWindows.put(d, keep);
+        }
+        for (String h : handles) {
+            if (h.equals(keep)) continue;
+            d.switchTo().window(h);
+            d.close();
+        }
+        d.switchTo().window(keep);
+        d.manage().deleteAllCookies();
+        try {
+            ((JavascriptExecutor) d).executeScript("try { localStorage.clear(); sessionStorage.clear(); } catch (e) {}");
+        } catch (WebDriverException ignored) {
+            // about:blank and data: URLs have no storage
+        }
+    }
+
+    private static void quietQuit(WebDriver d) {
+        try {
+            d.quit();
+        } catch (WebDriverException ignored) { }
+    }
+
+    /** Chrome options shared by every pooled session (and by the startup benchmarks in src/jmh). */
+    public static ChromeOptions chromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+        // Pooled sessions are pre-warmed headless; -Dheadless=false or env CHROME_HEADLESS=false shows the window
+        boolean headless = Boolean.parseBoolean(System.getProperty("headless",
+                System.getenv().getOrDefault("CHROME_HEADLESS", "true")));
+        if (headless) {
+            options.addArguments("--headless=new");
+            options.addArguments("--disable-gpu");
+            // There is no screen to maximize to in headless mode; a fixed size also keeps layouts reproducible
+            options.addArguments("--window-size=" + System.getProperty("window.size", "1920,1080"));
+        } else {
+            options.addArguments("--start-maximized");
+        }
+        if (ChromeStartup.fast()) {
+            ChromeStartup.applyFlags(options);
+        }
+        // Allow specifying Chromium/Chrome binary path via env CHROME_BIN
+        String chromeBin = System.getenv("CHROME_BIN");
+        boolean usedCustomBinary = false;
+        if (chromeBin != null && !chromeBin.isBlank()) {
+            try {
+                Path p = Path.of(chromeBin);
+                if (Files.exists(p)) {
+                    options.setBinary(chromeBin);
+                    usedCustomBinary = true;
+                } else {
+                    log.warn("CHROME_BIN points to non-existent path: {} — ignoring.", chromeBin);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to evaluate CHROME_BIN='{}' — ignoring. {}", chromeBin, e.getMessage());
+            }
+        }
+        log.info("Launching Chrome with headless={}, binary={}", headless, usedCustomBinary ? chromeBin : "<default>");
+        return options;
+    }
 }
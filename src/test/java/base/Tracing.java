@@ -0,0 +1,298 @@
+package base;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Span tracing for test runs, written as OpenTelemetry OTLP/JSON.
+ * <p>
+ * Every test gets its own trace: {@link #beginTest(String)} opens a root span named after the test, and the
+ * WebDriver commands and {@link StepTimer} steps that run on the thread until {@link #endTest(ITestResult)} become
+ * its children (nested steps nest). Spans carry the test id and thread name as attributes. Work outside a test
+ * (pool pre-warming, standalone programs) produces one trace per top-level span.
+ * <p>
+ * Test threads only hand finished spans to a fixed-size ring buffer ({@code trace.bufferSize}, default 8192);
+ * they never block on it and never touch the disk. When the buffer is full the span is dropped and counted. A
+ * single background thread drains the buffer in batches and appends each batch as one line to
+ * {@code target/traces/spans-<pid>.jsonl} ({@code -Dtrace.dir}), in the line format of the OpenTelemetry
+ * Collector's file exporter, so the files can be replayed into any OTLP backend with its {@code otlpjsonfile}
+ * receiver or read directly with {@code jq}. {@code -Dtrace.enabled=false} turns tracing off.
+ */
+public final class Tracing {
+
+    private static final Logger log = LoggerFactory.getLogger(Tracing.class);
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("trace.enabled", "true"));
+    private static final Path DIR = Path.of(System.getProperty("trace.dir", "target/traces"));
+    private static final int CAPACITY = Integer.getInteger("trace.bufferSize", 8192);
+    private static final int BATCH = 512;
+    private static final String SCOPE = "selenium-automation";
+    // OTLP span kind INTERNAL and status code ERROR
+    private static final int KIND_INTERNAL = 1;
+    private static final int STATUS_ERROR = 2;
+
+    // Converts System.nanoTime() readings to Unix epoch nanoseconds
+    private static final long EPOCH_OFFSET_NANOS = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+
+    private static final BlockingQueue<SpanData> buffer = new ArrayBlockingQueue<>(Math.max(16, CAPACITY));
+    private static final AtomicLong queued = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final AtomicLong written = new AtomicLong();
+    private static final ThreadLocal<Context> context = ThreadLocal.withInitial(Context::new);
+    private static final Object idle = new Object();
+    private static volatile boolean closing;
+    private static final Thread writer;
+
+    static {
+        if (ENABLED) {
+            writer = new Thread(Tracing::drainLoop, "trace-writer");
+            writer.setDaemon(true);
+            writer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(Tracing::close, "trace-writer-flush"));
+        } else {
+            writer = null;
+        }
+    }
+
+    /** An open span; finish it with {@link #end(Scope, Throwable)} on the thread that started it. */
+    public record Scope(String name, String traceId, String spanId, String parentSpanId, String testId, long startNanos) { }
+
+    private record SpanData(Scope scope, long endNanos, String thread, long threadId, String error, Map<String, String> attributes) { }
+
+    private static final class Context {
+        String traceId;
+        String testId;
+        Scope root;
+        final Deque<Scope> open = new ArrayDeque<>();
+    }
+
+    private Tracing() { }
+
+    /** Opens the root span of a test on this thread; spans started until {@link #endTest} belong to its trace. */
+    public static void beginTest(String testId) {
+        Context c = context.get();
+        c.open.clear();
+        c.traceId = id(16);
+        c.testId = testId;
+        c.root = new Scope(testId, c.traceId, id(8), null, testId, System.nanoTime());
+        c.open.push(c.root);
+    }
+
+    /** Id of the test running on this thread (see {@link #beginTest(String)}), or null outside a test. */
+    public static String currentTestId() {
+        return context.get().testId;
+    }
+
+    /** Closes the test's root span with its outcome. */
+    public static void endTest(ITestResult result) {
+        Context c = context.get();
+        Scope root = c.root;
+        c.open.clear();
+        c.root = null;
+        c.traceId = null;
+        c.testId = null;
+        if (root == null || !ENABLED) return;
+        String status = switch (result.getStatus()) {
+            case ITestResult.SUCCESS -> "PASS";
+            case ITestResult.FAILURE -> "FAIL";
+            case ITestResult.SKIP -> result.wasRetried() ? "RETRIED" : "SKIP";
+            default -> String.valueOf(result.getStatus());
+        };
+        Throwable error = result.getStatus() == ITestResult.FAILURE ? result.getThrowable() : null;
+        emit(root, System.nanoTime(), error, Map.of("test.status", status));
+    }
+
+    /** Starts a child of the innermost open span on this thread, or a new trace outside a test. */
+    public static Scope start(String name) {
+        Context c = context.get();
+        Scope parent = c.open.peek();
+        Scope s = parent == null
+                ? new Scope(name, id(16), id(8), null, null, System.nanoTime())
+                : new Scope(name, parent.traceId(), id(8), parent.spanId(), c.testId, System.nanoTime());
+        c.open.push(s);
+        return s;
+    }
+
+    /** Ends {@code scope} (and anything left open inside it) and queues it for writing. */
+    public static void end(Scope scope, Throwable error) {
+        long now = System.nanoTime();
+        Deque<Scope> open = context.get().open;
+        // Unwind to the scope being closed; inner spans left open by an exception are abandoned
+        while (!open.isEmpty() && open.peek() != scope && open.peek() != context.get().root) open.pop();
+        if (open.peek() == scope) open.pop();
+        if (ENABLED) emit(scope, now, error, Map.of());
+    }
+
+    /** Blocks until every span queued so far is on disk, or the timeout elapses. */
+    public static boolean flush(Duration timeout) {
+        if (!ENABLED) return true;
+        long target = queued.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (idle) {
+            while (written.get() < target && writer.isAlive()) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) return false;
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(idle, left);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void emit(Scope scope, long endNanos, Throwable error, Map<String, String> attributes) {
+        Thread t = Thread.currentThread();
+        String message = error == null ? null : error.getClass().getSimpleName()
+                + (error.getMessage() == null ? "" : ": " + firstLine(error.getMessage()));
+        if (buffer.offer(new SpanData(scope, endNanos, t.getName(), t.threadId(), message, attributes))) {
+            queued.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // ---------- writer thread ----------
+
+    private static void drainLoop() {
+        Path file = DIR.resolve("spans-" + ProcessHandle.current().pid() + ".jsonl");
+        List<SpanData> batch = new ArrayList<>(BATCH);
+        try {
+            Files.createDirectories(DIR);
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                while (!closing || !buffer.isEmpty()) {
+                    SpanData first = buffer.poll(200, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                        buffer.drainTo(batch, BATCH - 1);
+                        out.write(toOtlp(batch));
+                        out.write('\n');
+                        out.flush();
+                        written.addAndGet(batch.size());
+                        batch.clear();
+                        synchronized (idle) {
+                            idle.notifyAll();
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Trace writer stopped, spans are no longer recorded: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void close() {
+        flush(Duration.ofSeconds(10));
+        closing = true;
+        try {
+            writer.join(2_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped.get() > 0) {
+            log.warn("Trace buffer overflowed: {} of {} spans dropped (raise -Dtrace.bufferSize)",
+                    dropped.get(), dropped.get() + written.get());
+        }
+    }
+
+    // One ExportTraceServiceRequest per line, as the OpenTelemetry Collector file exporter writes them
+    private static String toOtlp(List<SpanData> spans) {
+        StringBuilder json = new StringBuilder(256 * spans.size());
+        json.append("{\"resourceSpans\":[{\"resource\":{\"attributes\":[");
+        attribute(json, "service.name", SCOPE).append(',');
+        json.append("{\"key\":\"process.pid\",\"value\":{\"intValue\":\"").append(ProcessHandle.current().pid()).append("\"}}");
+        json.append("]},\"scopeSpans\":[{\"scope\":{\"name\":\"").append(SCOPE).append("\"},\"spans\":[");
+        for (int i = 0; i < spans.size(); i++) {
+            if (i > 0) json.append(',');
+            span(json, spans.get(i));
+        }
+        return json.append("]}]}]}").toString();
+    }
+
+    private static void span(StringBuilder json, SpanData d) {
+        Scope s = d.scope();
+        json.append("{\"traceId\":\"").append(s.traceId()).append("\",\"spanId\":\"").append(s.spanId()).append('"');
+        if (s.parentSpanId() != null) json.append(",\"parentSpanId\":\"").append(s.parentSpanId()).append('"');
+        json.append(",\"name\":");
+        string(json, s.name());
+        json.append(",\"kind\":").append(KIND_INTERNAL)
+                .append(",\"startTimeUnixNano\":\"").append(s.startNanos() + EPOCH_OFFSET_NANOS)
+                .append("\",\"endTimeUnixNano\":\"").append(d.endNanos() + EPOCH_OFFSET_NANOS).append("\",\"attributes\":[");
+        if (s.testId() != null) attribute(json, "test.id", s.testId()).append(',');
+        attribute(json, "thread.name", d.thread()).append(',');
+        json.append("{\"key\":\"thread.id\",\"value\":{\"intValue\":\"").append(d.threadId()).append("\"}}");
+        d.attributes().forEach((k, v) -> attribute(json.append(','), k, v));
+        json.append(']');
+        if (d.error() != null) {
+            json.append(",\"status\":{\"code\":").append(STATUS_ERROR).append(",\"message\":");
+            string(json, d.error());
+            json.append('}');
+        }
+        json.append('}');
+    }
+
+    private static StringBuilder attribute(StringBuilder json, String key, String value) {
+        json.append("{\"key\":\"").append(key).append("\",\"value\":{\"stringValue\":");
+        string(json, value);
+        return json.append("}}");
+    }
+
+    static void string(StringBuilder json, String s) {
+        json.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (ch < 0x20) json.append(String.format("\\u%04x", (int) ch));
+                    else json.append(ch);
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    private static String firstLine(String s) {
+        int nl = s.indexOf('\n');
+        return nl < 0 ? s : s.substring(0, nl);
+    }
+
+    // Random lowercase hex id of the given byte length, never all zeros (OTLP treats that as invalid)
+    private static String id(int bytes) {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        StringBuilder hex = new StringBuilder(bytes * 2);
+        for (int i = 0; i < bytes; i += 8) {
+            long v = r.nextLong();
+            if (v == 0) v = 1;
+            String h = Long.toHexString(v);
+            hex.append("0".repeat(16 - h.length())).append(h);
+        }
+        return hex.substring(0, bytes * 2);
+    }
+}
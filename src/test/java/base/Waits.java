@@ -0,0 +1,81 @@
+package base;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event-driven waits evaluated inside the page.
+ * <p>
+ * Instead of polling a condition over WebDriver every 500 ms, {@link #until} installs a MutationObserver plus
+ * {@code readystatechange}/{@code hashchange}/{@code load} listeners and blocks on a single
+ * {@code executeAsyncScript} call that resolves the moment the condition becomes truthy. This removes the polling
+ * latency floor and costs one WebDriver command per wait.
+ * <p>
+ * Conditions are JavaScript expressions; values passed as {@code args} are available to them as {@code args[i]}.
+ */
+public final class Waits {
+
+    private static final String SCRIPT = """
+            var args = arguments[0], timeoutMs = arguments[1], done = arguments[arguments.length - 1];
+            var check = function () { try { return (%s); } catch (e) { return false; } };
+            var first = check();
+            if (first) { done({ ok: true, value: first }); return; }
+            var finished = false, observer, timer;
+            var onChange = function () { var v = check(); if (v) finish({ ok: true, value: v }); };
+            function finish(res) {
+              if (finished) return;
+              finished = true;
+              observer.disconnect();
+              clearTimeout(timer);
+              document.removeEventListener('readystatechange', onChange);
+              window.removeEventListener('hashchange', onChange);
+              window.removeEventListener('load', onChange);
+              done(res);
+            }
+            observer = new MutationObserver(onChange);
+            observer.observe(document, { subtree: true, childList: true, characterData: true, attributes: true });
+            document.addEventListener('readystatechange', onChange);
+            window.addEventListener('hashchange', onChange);
+            window.addEventListener('load', onChange);
+            timer = setTimeout(function () { finish({ ok: false }); }, timeoutMs);
+            """;
+
+    private Waits() { }
+
+    /**
+     * Blocks until {@code condition} is truthy in the page and returns its value (elements come back as WebElements).
+     *
+     * @throws TimeoutException if the condition did not hold within {@code timeout}
+     */
+    public static Object until(WebDriver driver, Duration timeout, String condition, Object... args) {
+        Object res;
+        try {
+            res = ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT.formatted(condition), List.of(args), timeout.toMillis());
+        } catch (ScriptTimeoutException e) {
+            throw new TimeoutException("Script timeout waiting for: " + condition, e);
+        }
+        if (res instanceof Map<?, ?> m && Boolean.TRUE.equals(m.get("ok"))) {
+            return m.get("value");
+        }
+        throw new TimeoutException("Timed out after " + timeout.toMillis() + " ms waiting for: " + condition);
+    }
+
+    /** Condition: the document finished loading and the SPA rendered real content into {@code #root}. */
+    public static void untilHydrated(WebDriver driver, Duration timeout) {
+        until(driver, timeout,
+                "document.readyState === 'complete' && document.querySelector('#root') && document.querySelector('#root').innerText.length > 10");
+    }
+
+    /** Condition: any of the given texts is rendered (visible) somewhere in the page body. */
+    public static void untilAnyTextVisible(WebDriver driver, Duration timeout, String... texts) {
+        until(driver, timeout,
+                "document.body && args.some(function (t) { return document.body.innerText.replace(/\\s+/g, ' ').indexOf(t) >= 0; })",
+                (Object[]) texts);
+    }
+}
@@ -1,88 +1,123 @@
 package com.example;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import base.AdaptiveWait;
+import base.ChromeStartup;
+import base.StepTimer;
+import base.TestBase;
+import base.Waits;
 import org.openqa.selenium.*;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
 
 public class ContactFormTest {
 
-    public static void main(String[] args) {
-        WebDriverManager.chromedriver().setup();
+    private static final Logger log = LoggerFactory.getLogger(ContactFormTest.class);
 
-        ChromeOptions options = new ChromeOptions();
-        // options.addArguments("--headless=new"); // enable for CI
-        options.addArguments("--start-maximized");
-        WebDriver driver = new ChromeDriver(options);
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(20));
+    // ---- form fields (generic, resilient locators) ----
+    static final By NAME_BY    = By.xpath("//input[contains(@placeholder,'Your Name') or @name='name' or @id='name']");
+    static final By EMAIL_BY   = By.xpath("//input[@type='email' or contains(@placeholder,'Email') or @name='email']");
+    static final By MESSAGE_BY = By.xpath("//textarea[contains(@placeholder,'Message') or @name='message' or @id='message']");
+    static final By SEND_BY    = By.xpath("//button[normalize-space()='SEND' or contains(.,'Send')]");
 
-        try {
-            driver.get("https://nadildulran.netlify.app/");
+    // exact success text (handle curly/straight apostrophes)
+    static final String[] SUCCESS_TEXTS = {"Thanks! I’ll get back to you soon.", "Thanks! I'll get back to you soon."};
 
-            // ---- robust navigation to Contact ----
-            goToContactSection(driver, wait);
+    // Upper bound for every wait; the actual timeouts are learned per condition by AdaptiveWait
+    static final Duration MAX_WAIT = Duration.ofSeconds(20);
 
-            // ---- form fields (generic, resilient locators) ----
-            By nameBy    = By.xpath("//input[contains(@placeholder,'Your Name') or @name='name' or @id='name']");
-            By emailBy   = By.xpath("//input[@type='email' or contains(@placeholder,'Email') or @name='email']");
-            By messageBy = By.xpath("//textarea[contains(@placeholder,'Message') or @name='message' or @id='message']");
-            By sendBy    = By.xpath("//button[normalize-space()='SEND' or contains(.,'Send')]");
+    static final String MESSAGE = """
+            Hello Nadil,
 
-            WebElement name    = wait.until(ExpectedConditions.visibilityOfElementLocated(nameBy));
-            WebElement email   = wait.until(ExpectedConditions.visibilityOfElementLocated(emailBy));
-            WebElement message = wait.until(ExpectedConditions.visibilityOfElementLocated(messageBy));
+            This is a sample message sent via an automated Selenium test.
+            Please ignore.
 
-            name.clear();
-            name.sendKeys("Test User");
-            email.clear();
-            email.sendKeys("test.user@example.com");
+            — QA Bot
+            """;
 
-            String msg = """
-                Hello Nadil,
-
-                This is a sample message sent via an automated Selenium test.
-                Please ignore.
-
-                — QA Bot
-                """;
-            message.clear();
-            message.sendKeys(msg);
-
-            WebElement sendBtn = wait.until(ExpectedConditions.elementToBeClickable(sendBy));
-            scrollIntoView(driver, sendBtn);
-            jsClick(driver, sendBtn);
+    public static void main(String[] args) {
+        ChromeStartup.resolveDriver();
 
-            // exact success text (handle curly/straight apostrophes)
-            By successCurly   = By.xpath("//*[contains(normalize-space(.), \"Thanks! I’ll get back to you soon.\")]");
-            By successStraight= By.xpath("//*[contains(normalize-space(.), \"Thanks! I'll get back to you soon.\")]");
-            wait.until(ExpectedConditions.or(
-                    ExpectedConditions.visibilityOfElementLocated(successCurly),
-                    ExpectedConditions.visibilityOfElementLocated(successStraight)
-            ));
+        ChromeOptions options = new ChromeOptions();
+        // options.addArguments("--headless=new"); // enable for CI
+        options.addArguments("--start-maximized");
+        WebDriver driver = StepTimer.decorate(new ChromeDriver(options));
 
-            System.out.println("✅ Contact form submitted: success text detected.");
+        try {
+            driver.get(TestBase.baseUrl());
+            submitContactForm(driver, AdaptiveWait.site(), "Test User", "test.user@example.com", MESSAGE);
+            log.info("✅ Contact form submitted: success text detected.");
 
         } catch (Exception e) {
-            System.out.println("❌ Test failed: " + e.getMessage());
+            log.error("❌ Test failed: {}", e.getMessage());
         } finally {
             driver.quit();
+            try {
+                StepTimer.export(Path.of("target", "latency"));
+                AdaptiveWait.exportHistory();
+            } catch (IOException e) {
+                log.warn("Failed to export latency metrics: {}", e.getMessage());
+            }
         }
     }
 
+    /**
+     * The whole contact flow on a page that is already open: wait for it to render, navigate to Contact, fill the
+     * form, send it and wait for the success text. Shared by this program and {@link ContactLoadTest}'s browser mode.
+     * Waits use the timeouts learned for {@code site} (see {@link AdaptiveWait#site()}).
+     */
+    static void submitContactForm(WebDriver driver, String site, String name, String email, String message) {
+        AdaptiveWait.run(site, "spa.hydration", MAX_WAIT, timeout -> Waits.untilHydrated(driver, timeout));
+        // ---- robust navigation to Contact ----
+        goToContactSection(driver, site);
+
+        // The form shows up after the navigation; its wait is learned separately from lookups on a settled page
+        WebDriverWait fields = AdaptiveWait.webDriverWait(driver, site, "contact.fields", MAX_WAIT);
+        WebElement nameField    = fields.until(ExpectedConditions.visibilityOfElementLocated(NAME_BY));
+        WebElement emailField   = fields.until(ExpectedConditions.visibilityOfElementLocated(EMAIL_BY));
+        WebElement messageField = fields.until(ExpectedConditions.visibilityOfElementLocated(MESSAGE_BY));
+
+        nameField.clear();
+        nameField.sendKeys(name);
+        emailField.clear();
+        emailField.sendKeys(email);
+        messageField.clear();
+        messageField.sendKeys(message);
+
+        WebElement sendBtn = AdaptiveWait.webDriverWait(driver, site, "contact.send", MAX_WAIT)
+                .until(ExpectedConditions.elementToBeClickable(SEND_BY));
+        scrollIntoView(driver, sendBtn);
+        jsClick(driver, sendBtn);
+
+        AdaptiveWait.run(site, "contact.success", MAX_WAIT, timeout -> Waits.untilAnyTextVisible(driver, timeout, SUCCESS_TEXTS));
+    }
+
     // ---- helpers ----
-    private static void goToContactSection(WebDriver driver, WebDriverWait wait) {
-        // 1) Try to find a nav link and JS-click it
-        By navContact = By.xpath("(//a[normalize-space()='Contact' or contains(@href,'#contact') or contains(@href,'/contact')])[1]");
-        try {
-            WebElement link = wait.until(ExpectedConditions.presenceOfElementLocated(navContact));
-            scrollIntoView(driver, link);
-            jsClick(driver, link);
-            return;
-        } catch (TimeoutException ignored) {}
+    // Navbar Contact entries, tried in order without waiting (the page has rendered by now); the portfolio and the
+    // local fixture use buttons, not anchors, for the navbar
+    static final List<By> NAV_CONTACT = List.of(
+            By.xpath("//header//button[normalize-space()='Contact']"),
+            By.xpath("//a[normalize-space()='Contact' or contains(@href,'#contact') or contains(@href,'/contact')]"),
+            By.xpath("//button[normalize-space()='Contact']"));
+
+    static void goToContactSection(WebDriver driver, String site) {
+        // 1) JS-click the first nav entry that is present
+        for (By by : NAV_CONTACT) {
+            List<WebElement> found = driver.findElements(by);
+            if (!found.isEmpty()) {
+                scrollIntoView(driver, found.get(0));
+                jsClick(driver, found.get(0));
+                return;
+            }
+        }
 
         // 2) Force the hash (works for SPA anchors)
         try {
@@ -93,7 +128,8 @@ public class ContactFormTest {
         // 3) Scroll to the section heading as last resort
         By contactHeader = By.xpath("//*[self::h1 or self::h2 or self::h3][normalize-space()='Contact']");
         try {
-            WebElement hdr = wait.until(ExpectedConditions.presenceOfElementLocated(contactHeader));
+            WebElement hdr = AdaptiveWait.webDriverWait(driver, site, "contact.heading", MAX_WAIT)
+                    .until(ExpectedConditions.presenceOfElementLocated(contactHeader));
             scrollIntoView(driver, hdr);
         } catch (TimeoutException te) {
             // If the site lazy-loads, just do a big scroll
@@ -101,12 +137,12 @@ public class ContactFormTest {
         }
     }
 
-    private static void scrollIntoView(WebDriver driver, WebElement el) {
+    static void scrollIntoView(WebDriver driver, WebElement el) {
         ((JavascriptExecutor) driver).executeScript(
                 "arguments[0].scrollIntoView({block:'center', inline:'nearest'});", el);
     }
 
-    private static void jsClick(WebDriver driver, WebElement el) {
+    static void jsClick(WebDriver driver, WebElement el) {
         ((JavascriptExecutor) driver).executeScript("arguments[0].click();", el);
     }
 }
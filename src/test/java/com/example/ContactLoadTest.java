@@ -0,0 +1,208 @@
+package com.example;
+
+import base.AdaptiveWait;
+import base.LatencyHistogram;
+import base.SiteFixture;
+import base.TestBase;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator for the contact flow.
+ * <p>
+ * {@code http} mode (default) replays the request the contact form sends, {@code POST api/contact} with the same
+ * JSON body, at a fixed arrival rate for a fixed duration. Every request runs on its own virtual thread, so slow
+ * responses never hold back the schedule. {@code browser} mode runs {@link ContactFormTest}'s full UI flow in a
+ * loop on a pool of headless sessions leased from {@link TestBase}.
+ * <p>
+ * Both modes print throughput, error rate and latency percentiles and write them to
+ * {@code target/load/contact-load.json}. The target is {@code -Dbase.url} when given, otherwise the in-process
+ * {@link SiteFixture}, so the default run never touches the deployed site.
+ * <p>
+ * Settings: {@code -Dload.mode=http|browser}, {@code -Dload.rate} (requests/s, http mode, default 50),
+ * {@code -Dload.durationSeconds} (default 10), {@code -Dload.browsers} (sessions, browser mode, default 2) and
+ * {@code -Dload.timeoutMs} (per-request timeout, http mode, default 5000).
+ */
+public class ContactLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactLoadTest.class);
+
+    private static final Path OUT_DIR = Path.of("target", "load");
+
+    /** Outcome counters and latency distribution of one run. */
+    record Result(String mode, long sent, long ok, long errors, long elapsedNanos, LatencyHistogram latency) {
+        double throughput() {
+            return ok / (elapsedNanos / 1e9);
+        }
+
+        double errorRate() {
+            return sent == 0 ? 0 : (double) errors / sent;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = System.getProperty("load.mode", "http");
+        Duration duration = Duration.ofSeconds(Long.getLong("load.durationSeconds", 10));
+        String explicit = System.getProperty("base.url");
+        boolean fixture = explicit == null || explicit.isBlank();
+        String target = fixture ? SiteFixture.start().url() : explicit;
+        // Browser mode reads the wait timeouts learned for this site (latencies under load are not written back)
+        String site = fixture ? AdaptiveWait.FIXTURE_SITE : AdaptiveWait.site();
+        if (!target.endsWith("/")) target += "/";
+
+        log.info("Load test: mode={}, target={}, duration={}s", mode, target, duration.toSeconds());
+        Result result = switch (mode) {
+            case "http" -> runHttp(target, Integer.getInteger("load.rate", 50), duration,
+                    Duration.ofMillis(Long.getLong("load.timeoutMs", 5000)));
+            case "browser" -> runBrowser(target, site, Integer.getInteger("load.browsers", 2), duration);
+            default -> throw new IllegalArgumentException("Unknown load.mode '" + mode + "' (expected http or browser)");
+        };
+
+        log.info(summary(result));
+        Files.createDirectories(OUT_DIR);
+        Files.writeString(OUT_DIR.resolve("contact-load.json"), toJson(result));
+        if (fixture) {
+            log.info("Fixture recorded {} submissions", SiteFixture.start().submissions());
+            SiteFixture.stop();
+        }
+    }
+
+    /** Open-model load: request {@code i} is issued at {@code start + i / rate}, whether or not earlier ones returned. */
+    static Result runHttp(String target, int rate, Duration duration, Duration timeout) throws InterruptedException {
+        URI endpoint = URI.create(target).resolve("api/contact");
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong ok = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long sent = 0;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rate);
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        // closed in reverse order: all request threads finish before the client shuts down
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(timeout).build();
+             ExecutorService vthreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long next = start; next < end; next += intervalNanos) {
+                LockSupport.parkNanos(next - System.nanoTime());
+                long n = ++sent;
+                HttpRequest request = HttpRequest.newBuilder(endpoint)
+                        .timeout(timeout)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(payload(n)))
+                        .build();
+                vthreads.execute(() -> {
+                    long t0 = System.nanoTime();
+                    try {
+                        HttpResponse<Void> res = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latency.record((System.nanoTime() - t0) / 1_000);
+                        if (res.statusCode() / 100 == 2) ok.incrementAndGet();
+                        else errors.incrementAndGet();
+                    } catch (IOException | RuntimeException e) {
+                        // a RuntimeException (e.g. a rejected request) is a failed request too, or sent != ok + errors
+                        latency.record((System.nanoTime() - t0) / 1_000);
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        errors.incrementAndGet();
+                    }
+                });
+            }
+            // leaving the try block waits for in-flight requests (each bounded by the request timeout)
+        }
+        return new Result("http", sent, ok.get(), errors.get(), System.nanoTime() - start, latency);
+    }
+
+    /** Closed-model load: each session repeats open page -> fill -> send -> success text until the duration is up. */
+    static Result runBrowser(String target, String site, int browsers, Duration duration) throws InterruptedException {
+        if (System.getProperty("driver.pool.size") == null) System.setProperty("driver.pool.size", String.valueOf(browsers));
+        // Keep external links stubbed but let submits reach the endpoint under test
+        if (System.getProperty("network.stubs") == null) System.setProperty("network.stubs", "github,linkedin");
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong sent = new AtomicLong();
+        AtomicLong ok = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService vthreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < browsers; i++) {
+                vthreads.execute(() -> {
+                    while (System.nanoTime() < end) {
+                        long n = sent.incrementAndGet();
+                        long t0 = System.nanoTime();
+                        WebDriver driver = null;
+                        try {
+                            // A lease that times out or a Chrome that fails to launch counts as a failed iteration
+                            driver = TestBase.lease();
+                            driver.get(target);
+                            ContactFormTest.submitContactForm(driver, site, "Load User " + n,
+                                    "load.user." + n + "@example.com", ContactFormTest.MESSAGE);
+                            ok.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            errors.incrementAndGet();
+                            log.warn("Iteration {} failed: {}", n, e.getMessage());
+                        } finally {
+                            latency.record((System.nanoTime() - t0) / 1_000);
+                            if (driver != null) TestBase.release(driver);
+                        }
+                    }
+                });
+            }
+        } finally {
+            TestBase.shutdownPool();
+        }
+        return new Result("browser", sent.get(), ok.get(), errors.get(), System.nanoTime() - start, latency);
+    }
+
+    private static String payload(long n) {
+        return "{\"name\":\"Load User " + n + "\",\"email\":\"load.user." + n + "@example.com\","
+                + "\"message\":\"Load test message " + n + ", please ignore.\"}";
+    }
+
+    static String summary(Result r) {
+        LatencyHistogram h = r.latency();
+        return String.format(Locale.ROOT,
+                "%s: sent=%d ok=%d errors=%d (%.2f%%) throughput=%.1f/s latency ms p50=%.2f p95=%.2f p99=%.2f max=%.2f",
+                r.mode(), r.sent(), r.ok(), r.errors(), r.errorRate() * 100, r.throughput(),
+                h.percentile(50) / 1e3, h.percentile(95) / 1e3, h.percentile(99) / 1e3, h.max() / 1e3);
+    }
+
+    private static String toJson(Result r) {
+        LatencyHistogram h = r.latency();
+        return String.format(Locale.ROOT, """
+                {
+                  "generatedAt": "%s",
+                  "mode": "%s",
+                  "sent": %d,
+                  "ok": %d,
+                  "errors": %d,
+                  "error_rate": %.4f,
+                  "elapsed_s": %.3f,
+                  "throughput_per_s": %.2f,
+                  "p50_ms": %.3f,
+                  "p95_ms": %.3f,
+                  "p99_ms": %.3f,
+                  "max_ms": %.3f,
+                  "mean_ms": %.3f
+                }
+                """, Instant.now(), r.mode(), r.sent(), r.ok(), r.errors(), r.errorRate(), r.elapsedNanos() / 1e9,
+                r.throughput(), h.percentile(50) / 1e3, h.percentile(95) / 1e3, h.percentile(99) / 1e3,
+                h.max() / 1e3, h.mean() / 1e3);
+    }
+}
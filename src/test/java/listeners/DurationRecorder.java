@@ -0,0 +1,132 @@
+package listeners;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IConfigurationListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how long every test method takes, including its {@code @BeforeMethod}/{@code @AfterMethod} work (page
+ * loads, driver leases), as input for {@link ShardInterceptor}'s duration-balanced partitioning.
+ * <p>
+ * Durations are kept in {@code .test-durations.csv} at the project root ({@code -Dshard.durations} overrides), as an
+ * exponentially weighted average so one slow run does not reshuffle every shard. The file is meant to be committed,
+ * so a plain run leaves it alone: only unsharded runs with {@code -Dshard.record=true} update it. Sharded runs must
+ * all partition from the same history, so they only write this run's measurements to
+ * {@code target/test-durations.csv}; {@link ShardMerge} folds them into the history afterwards.
+ */
+public class DurationRecorder implements ITestListener, IConfigurationListener, ISuiteListener {
+
+    private static final Logger log = LoggerFactory.getLogger(DurationRecorder.class);
+
+    static final Path HISTORY = Path.of(System.getProperty("shard.durations", ".test-durations.csv"));
+    static final Path RUN_FILE = Path.of("target", "test-durations.csv");
+    private static final boolean RECORD = Boolean.getBoolean("shard.record");
+    private static final String HEADER = "test,ms";
+    // Weight of the newest measurement in the running average
+    private static final double ALPHA = 0.5;
+
+    private final Map<String, Long> measured = new ConcurrentHashMap<>();
+
+    /** {@code class#method}, the key used in the duration files. */
+    static String key(ITestNGMethod m) {
+        return m.getRealClass().getName() + "#" + m.getMethodName();
+    }
+
+    @Override
+    public void onConfigurationSuccess(ITestResult tr, ITestNGMethod tm) {
+        add(tr, tm);
+    }
+
+    @Override
+    public void onConfigurationFailure(ITestResult tr, ITestNGMethod tm) {
+        add(tr, tm);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        add(result, result.getMethod());
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        add(result, result.getMethod());
+    }
+
+    // Skipped tests are not recorded: they say nothing about how long the test takes when it runs
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (measured.isEmpty()) return;
+        try {
+            if (ShardInterceptor.shard() != null) {
+                Files.createDirectories(RUN_FILE.getParent());
+                write(RUN_FILE, new TreeMap<>(measured));
+            } else if (RECORD) {
+                fold(HISTORY, measured);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to record test durations: {}", e.getMessage());
+        }
+    }
+
+    private void add(ITestResult tr, ITestNGMethod tm) {
+        if (tm == null || !tm.isTest()) return; // suite/class-level configuration is shared, not per test
+        measured.merge(key(tm), Math.max(0, tr.getEndMillis() - tr.getStartMillis()), Long::sum);
+    }
+
+    /** Blends {@code measured} into the history file under a file lock (runs may finish at the same time). */
+    static void fold(Path history, Map<String, Long> measured) throws IOException {
+        Path abs = history.toAbsolutePath();
+        if (abs.getParent() != null) Files.createDirectories(abs.getParent());
+        try (FileChannel ch = FileChannel.open(abs.resolveSibling(abs.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = ch.lock()) {
+            Map<String, Long> merged = new TreeMap<>(read(history));
+            measured.forEach((test, ms) -> merged.merge(test, ms, (old, now) -> Math.round(ALPHA * now + (1 - ALPHA) * old)));
+            write(history, merged);
+        }
+    }
+
+    /** Loads a duration file ({@code test,ms} rows); missing or malformed files give an empty map. */
+    static Map<String, Long> read(Path file) {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        if (!Files.exists(file)) return durations;
+        try {
+            for (String line : Files.readAllLines(file)) {
+                int comma = line.lastIndexOf(',');
+                if (comma <= 0 || line.equals(HEADER)) continue;
+                try {
+                    durations.put(line.substring(0, comma), Long.parseLong(line.substring(comma + 1).trim()));
+                } catch (NumberFormatException ignored) { }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read {}: {}", file, e.getMessage());
+        }
+        return durations;
+    }
+
+    private static void write(Path file, Map<String, Long> durations) throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER).append('\n');
+        durations.forEach((test, ms) -> csv.append(test).append(',').append(ms).append('\n'));
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, csv);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
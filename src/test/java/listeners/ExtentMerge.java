@@ -0,0 +1,78 @@
+package listeners;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Builds one Spark report from the JSON archives written by {@link ExtentTestListener}.
+ * <p>
+ * Called automatically at the end of every run; a file lock serialises forked JVMs finishing together, and the last
+ * one to merge leaves the complete report. Run it by hand to rebuild the report after a crashed run, or to combine
+ * archives collected from several machines:
+ * <pre>
+ *   java -cp target/test-classes:&lt;test classpath&gt; listeners.ExtentMerge [jsonDir] [out.html]
+ * </pre>
+ * {@code jsonDir} defaults to the newest run under {@code target/extent-reports/json}.
+ */
+public final class ExtentMerge {
+
+    private static final Logger log = LoggerFactory.getLogger(ExtentMerge.class);
+
+    private ExtentMerge() { }
+
+    public static void main(String[] args) throws IOException {
+        Path jsonDir = args.length > 0 ? Path.of(args[0]) : newestRun(Path.of("target", "extent-reports", "json"));
+        Path out = args.length > 1 ? Path.of(args[1]) : Path.of("target", "extent-reports", "spark.html");
+        int archives = merge(jsonDir, out);
+        log.info("Merged {} Extent archive(s) from {} into {}", archives, jsonDir, out);
+    }
+
+    /** Rebuilds {@code sparkFile} from every {@code *.json} archive in {@code jsonDir}; returns the archive count. */
+    public static int merge(Path jsonDir, Path sparkFile) throws IOException {
+        if (!Files.isDirectory(jsonDir)) return 0;
+        try (FileChannel ch = FileChannel.open(jsonDir.resolve(".merge.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = ch.lock()) {
+            List<Path> archives;
+            try (Stream<Path> files = Files.list(jsonDir)) {
+                archives = files.filter(p -> p.toString().endsWith(".json") && sizeOf(p) > 0).sorted().toList();
+            }
+            ExtentReports merged = new ExtentReports();
+            for (Path archive : archives) {
+                merged.createDomainFromJsonArchive(archive.toFile());
+            }
+            merged.attachReporter(new ExtentSparkReporter(sparkFile.toString()));
+            merged.setSystemInfo("Framework", "TestNG");
+            merged.setSystemInfo("Selenium", "4.x");
+            merged.flush();
+            return archives.size();
+        }
+    }
+
+    private static long sizeOf(Path p) {
+        try {
+            return Files.size(p);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static Path newestRun(Path root) throws IOException {
+        try (Stream<Path> runs = Files.list(root)) {
+            return runs.filter(Files::isDirectory)
+                    .max(Comparator.comparingLong(p -> p.toFile().lastModified()))
+                    .orElseThrow(() -> new IOException("No Extent runs under " + root));
+        }
+    }
+}
@@ -1,90 +1,323 @@
 package listeners;
 
+import base.AdaptiveWait;
+import base.ArtifactIndex;
+import base.ArtifactStore;
+import base.FailureClassifier;
+import base.NetworkControl;
+import base.PagePerformance;
+import base.StepTimer;
+import base.TestBase;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.MediaEntityBuilder;
 import com.aventstack.extentreports.Status;
-import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.aventstack.extentreports.reporter.JsonFormatter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Comparator;
-import java.util.Optional;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class ExtentTestListener implements ITestListener {
-    private static ExtentReports extent;
-    private static final ThreadLocal<ExtentTest> test = new ThreadLocal<>();
+/**
+ * Spark report listener that is safe under parallel runs and keeps memory flat on very large suites.
+ * <p>
+ * Tests are recorded into chunks of {@code extent.chunkSize} (default 500) tests. Each chunk writes its own JSON
+ * archive under {@code target/extent-reports/json/<run id>/} and is dropped from memory once all its tests have
+ * finished. Open chunks are flushed every {@code extent.flushIntervalSeconds} (default 30) so a partial report
+ * survives a crashed run. Once the suite has finished, {@link ExtentMerge} builds {@code spark.html} from every
+ * archive of the run, including those written by other forked surefire JVMs. That happens once per suite, not per
+ * {@code <test>}, so the merge reads every archive once.
+ * <p>
+ * Every report mutation happens under the owning chunk's monitor, so concurrent callbacks from many test threads
+ * never race with a background flush.
+ */
+public class ExtentTestListener implements ITestListener, ISuiteListener {
 
-    private static ExtentReports createInstance() {
-        String reportPath = "target/extent-reports/spark.html";
-        ExtentSparkReporter spark = new ExtentSparkReporter(reportPath);
-        ExtentReports ext = new ExtentReports();
-        ext.attachReporter(spark);
-        ext.setSystemInfo("Framework", "TestNG");
-        ext.setSystemInfo("Selenium", "4.x");
-        return ext;
+    private static final Logger log = LoggerFactory.getLogger(ExtentTestListener.class);
+    private static final Path REPORT_DIR = Path.of("target", "extent-reports");
+    private static final Path SPARK = REPORT_DIR.resolve("spark.html");
+    private static final int CHUNK_SIZE = Math.max(1, Integer.getInteger("extent.chunkSize", 500));
+    private static final long FLUSH_INTERVAL_SECONDS = Long.getLong("extent.flushIntervalSeconds", 30);
+    // Shared by all forks of one Maven invocation (set in the surefire configuration); per-JVM otherwise
+    private static final String RUN_ID = System.getProperty("extent.runId", "local-" + ProcessHandle.current().pid());
+    private static final Path JSON_DIR = REPORT_DIR.resolve("json").resolve(RUN_ID);
+
+    private static final ThreadLocal<Entry> test = new ThreadLocal<>();
+    // Failed browser tests waiting for their artifacts: TestNG reports the failure before @AfterMethod captures them.
+    // TestBase completes every entry after the test's last @AfterMethod, with or without artifacts
+    private static final Map<String, Entry> awaitingArtifacts = new ConcurrentHashMap<>();
+    private static final List<Chunk> open = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger chunkSeq = new AtomicInteger();
+    private static Chunk current; // guarded by ExtentTestListener.class
+
+    static {
+        ArtifactIndex.subscribe((resultId, artifacts) -> {
+            Entry e = awaitingArtifacts.remove(resultId);
+            if (e == null) return;
+            if (artifacts != null) {
+                synchronized (e.chunk()) {
+                    attachArtifacts(e.node(), artifacts);
+                }
+            }
+            e.chunk().finish();
+        });
+    }
+
+    /** A test's report node, the chunk that owns it and the TestNG result it was created for. */
+    private record Entry(String resultId, ExtentTest node, Chunk chunk) { }
+
+    /** Slice of the report with its own JSON archive. */
+    private static final class Chunk {
+        private final ExtentReports extent = new ExtentReports();
+        private int created;
+        private int finished;
+        private boolean sealed;
+        private boolean dirty;
+
+        Chunk(Path archive) {
+            extent.attachReporter(new JsonFormatter(archive.toString()));
+        }
+
+        synchronized ExtentTest create(String name) {
+            created++;
+            dirty = true;
+            return extent.createTest(name);
+        }
+
+        synchronized void finish() {
+            finished++;
+            dirty = true;
+            releaseIfDone();
+        }
+
+        /** No more tests will be added; the chunk leaves memory once its running tests finish. */
+        synchronized void seal() {
+            sealed = true;
+            releaseIfDone();
+        }
+
+        synchronized void flush(boolean force) {
+            if (!dirty && !force) return;
+            extent.flush();
+            dirty = false;
+        }
+
+        private void releaseIfDone() {
+            if (sealed && finished == created) {
+                flush(true);
+                open.remove(this);
+            }
+        }
+    }
+
+    private static synchronized Chunk chunkForNewTest() {
+        if (current == null) {
+            // A crashed run keeps its archives on disk; the report is merged only at the end of the suite
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> open.forEach(c -> c.flush(true)), "extent-flush"));
+            ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "extent-periodic-flush");
+                t.setDaemon(true);
+                return t;
+            });
+            flusher.scheduleWithFixedDelay(() -> open.forEach(c -> c.flush(false)),
+                    FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        } else if (current.created >= CHUNK_SIZE) {
+            current.seal();
+        } else {
+            return current;
+        }
+        try {
+            Files.createDirectories(JSON_DIR);
+        } catch (IOException e) {
+            log.warn("Failed to create {}: {}", JSON_DIR, e.getMessage());
+        }
+        current = new Chunk(JSON_DIR.resolve("extent-" + ProcessHandle.current().pid() + "-" + chunkSeq.incrementAndGet() + ".json"));
+        open.add(current);
+        return current;
+    }
+
+    private static void flushAndMerge() {
+        open.forEach(c -> c.flush(true));
+        try {
+            ExtentMerge.merge(JSON_DIR, SPARK);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to build Extent report: {}", e.getMessage());
+        }
     }
 
     @Override
-    public void onStart(ITestContext context) {
-        extent = createInstance();
+    public void onFinish(ISuite suite) {
+        flushAndMerge();
     }
 
     @Override
     public void onFinish(ITestContext context) {
-        if (extent != null) extent.flush();
+        try {
+            StepTimer.export(Path.of("target", "latency"));
+            PagePerformance.exportHistory();
+            AdaptiveWait.exportHistory();
+        } catch (java.io.IOException e) {
+            log.warn("Failed to export latency/performance metrics: {}", e.getMessage());
+        }
     }
 
     @Override
     public void onTestStart(ITestResult result) {
-        String name = result.getMethod().getMethodName();
-        test.set(extent.createTest(name));
+        entry(result);
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
-        get().pass("Test passed");
+        Entry e = entry(result);
+        synchronized (e.chunk()) {
+            get().pass("Test passed");
+            logFlakiness(result);
+            logLatencyBreakdown();
+            logPagePerformance();
+            logNetworkUsage();
+        }
+        e.chunk().finish();
+        test.remove();
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
-        get().fail(result.getThrowable());
-        attachLatestArtifacts(result);
+        Entry e = entry(result);
+        ArtifactStore.Artifacts artifacts = ArtifactIndex.lookup(result.id());
+        synchronized (e.chunk()) {
+            get().fail(result.getThrowable());
+            Object kind = result.getAttribute(FailureClassifier.ATTRIBUTE);
+            if (kind != null) get().info("Failure class: " + kind);
+            logFlakiness(result);
+            logLatencyBreakdown();
+            logPagePerformance();
+            logNetworkUsage();
+            if (artifacts != null) attachArtifacts(get(), artifacts);
+        }
+        // Only TestBase tests capture artifacts (and complete them); anything else is done now
+        if (artifacts != null || !(result.getInstance() instanceof TestBase)) e.chunk().finish();
+        else awaitingArtifacts.put(result.id(), e);
+        test.remove();
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
-    get().log(Status.SKIP, "Test skipped");
+        Entry e = entry(result);
+        synchronized (e.chunk()) {
+            if (result.wasRetried()) {
+                get().log(Status.WARNING, "Retrying after " + result.getAttribute(FailureClassifier.ATTRIBUTE) + ": "
+                        + (result.getThrowable() == null ? "" : result.getThrowable().getMessage()));
+            } else {
+                get().log(Status.SKIP, "Test skipped");
+            }
+        }
+        StepTimer.drainTest();
+        PagePerformance.drainTest();
+        NetworkControl.drainTest();
+        e.chunk().finish();
+        test.remove();
+    }
+
+    /**
+     * This thread's entry for {@code result}, created when there is none: TestNG reports config-failure and
+     * dependency skips without calling {@link #onTestStart(ITestResult)} first.
+     */
+    private Entry entry(ITestResult result) {
+        Entry e = test.get();
+        if (e != null && e.resultId().equals(result.id())) return e;
+        Chunk chunk;
+        ExtentTest node;
+        synchronized (ExtentTestListener.class) {
+            chunk = chunkForNewTest();
+            node = chunk.create(result.getMethod().getMethodName());
+        }
+        e = new Entry(result.id(), node, chunk);
+        test.set(e);
+        return e;
     }
 
     private ExtentTest get() {
-        return test.get();
+        return test.get().node();
     }
 
-    private void attachLatestArtifacts(ITestResult result) {
-        try {
-            String method = result.getMethod().getMethodName();
-            Path debugDir = Path.of("target", "surefire-reports", "test-debug");
-            if (!Files.exists(debugDir)) return;
-
-            // Attach latest screenshot for this method, if any
-            Optional<Path> latestPng = Files.list(debugDir)
-                    .filter(p -> p.getFileName().toString().startsWith(method + "-") && p.toString().endsWith(".png"))
-                    .max(Comparator.comparingLong(p -> p.toFile().lastModified()));
-            latestPng.ifPresent(p -> {
-                try {
-                    get().info("Screenshot:", MediaEntityBuilder.createScreenCaptureFromPath(p.toString()).build());
-                } catch (RuntimeException ignored) { }
-            });
+    // Attempts of this run (see RetryAnalyzer) and the test's retry record in previous runs
+    private void logFlakiness(ITestResult result) {
+        String flakiness = FlakinessHistory.describe(result);
+        if (flakiness == null) return;
+        if (FlakinessHistory.settle(result).retries().isEmpty()) get().info(flakiness);
+        else get().warning(flakiness);
+    }
+
+    // Per-step timings recorded by StepTimer for this test (setup + body), slowest first
+    private void logLatencyBreakdown() {
+        Map<String, StepTimer.StepStats> steps = StepTimer.drainTest();
+        if (steps.isEmpty()) return;
+        String[][] rows = new String[steps.size() + 1][];
+        rows[0] = new String[] {"Step", "Calls", "Total (ms)", "Max (ms)"};
+        int i = 1;
+        for (Map.Entry<String, StepTimer.StepStats> e : steps.entrySet()) {
+            StepTimer.StepStats st = e.getValue();
+            rows[i++] = new String[] {e.getKey(), String.valueOf(st.count()),
+                    String.format(Locale.ROOT, "%.1f", st.totalMillis()), String.format(Locale.ROOT, "%.1f", st.maxMillis())};
+        }
+        get().info(MarkupHelper.createTable(rows));
+    }
+
+    // Page timings captured during this test next to their budget and the median of previous runs
+    private void logPagePerformance() {
+        for (PagePerformance.Snapshot s : PagePerformance.drainTest()) {
+            String[][] rows = new String[s.metrics().size() + 1][];
+            String label = s.intercepted() ? s.label() + " (block list on, not checked)" : s.label();
+            rows[0] = new String[] {label, "Value", "Budget", "Median (previous runs)"};
+            int i = 1;
+            for (PagePerformance.Metric m : s.metrics()) {
+                rows[i++] = new String[] {m.name(), fmt(m.value()), fmt(m.budget()), fmt(m.baseline())};
+            }
+            get().info(MarkupHelper.createTable(rows));
+            s.violations().forEach(v -> get().warning(v));
+        }
+    }
+
+    // Requests seen by the network interceptor during this test and what happened to them
+    private void logNetworkUsage() {
+        NetworkControl.Usage u = NetworkControl.drainTest();
+        if (u == null || !u.intercepted()) return;
+        get().info(String.format(Locale.ROOT, "Network: %d requests, %d blocked, %d stubbed, %.1f KB from the network",
+                u.requests(), u.blocked(), u.stubbed(), u.bytes() / 1024.0));
+    }
+
+    private static String fmt(double v) {
+        return Double.isNaN(v) ? "-" : String.format(Locale.ROOT, "%.2f", v);
+    }
+
+    // Paths are made relative to the report so links work wherever the target folder is unpacked
+    private static void attachArtifacts(ExtentTest t, ArtifactStore.Artifacts artifacts) {
+        if (artifacts.screenshot() != null) {
+            try {
+                t.info("Screenshot:", MediaEntityBuilder.createScreenCaptureFromPath(relative(artifacts.screenshot())).build());
+            } catch (RuntimeException ignored) { }
+        }
+        t.info("DOM: <a href='" + relative(artifacts.dom()) + "'>" + artifacts.dom().getFileName() + "</a>");
+    }
 
-            // Add a link to the latest DOM dump
-            Optional<Path> latestHtml = Files.list(debugDir)
-                    .filter(p -> p.getFileName().toString().startsWith(method + "-") && p.toString().endsWith(".html"))
-                    .max(Comparator.comparingLong(p -> p.toFile().lastModified()));
-            latestHtml.ifPresent(p -> get().info("DOM: " + p.toString()));
-        } catch (java.io.IOException ignored) { }
+    private static String relative(Path p) {
+        return REPORT_DIR.toAbsolutePath().relativize(p.toAbsolutePath()).toString().replace('\\', '/');
     }
 }
@@ -0,0 +1,193 @@
+package listeners;
+
+import base.FailureClassifier;
+import base.TestBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-test flakiness across runs: how often each test passed first time, passed only after {@link RetryAnalyzer}
+ * (or {@link TestBase#prepare} for its setup) retried it, or failed outright, and how many retries it needed in total.
+ * <p>
+ * Counts are kept in {@code target/flakiness/history.csv} ({@code -Dflaky.history} overrides; cache it between CI
+ * runs like the performance history). At the end of every suite this run is added to it and
+ * {@code target/flakiness/flakiest.md} lists the tests that take the most retries per run to go green, slowest to
+ * stabilize first. The Spark report shows each test's attempts next to its history.
+ */
+public class FlakinessHistory implements ITestListener, ISuiteListener {
+
+    private static final Logger log = LoggerFactory.getLogger(FlakinessHistory.class);
+
+    private static final Path HISTORY = Path.of(System.getProperty("flaky.history", "target/flakiness/history.csv"));
+    private static final Path SUMMARY = Path.of("target", "flakiness", "flakiest.md");
+    private static final String HEADER = "test,runs,passedFirst,passedAfterRetry,failed,retries";
+    private static final int TOP = 10;
+
+    /** Counts for one test; {@code retries} is the total number of extra attempts. */
+    record Stats(long runs, long passedFirst, long passedAfterRetry, long failed, long retries) {
+        static final Stats NONE = new Stats(0, 0, 0, 0, 0);
+
+        Stats plus(Stats o) {
+            return new Stats(runs + o.runs, passedFirst + o.passedFirst, passedAfterRetry + o.passedAfterRetry,
+                    failed + o.failed, retries + o.retries);
+        }
+
+        double retriesPerRun() {
+            return runs == 0 ? 0 : (double) retries / runs;
+        }
+
+        long unstableRuns() {
+            return passedAfterRetry + failed;
+        }
+    }
+
+    /** How one test ended up in this run: its retries in order and whether the last attempt passed. */
+    public record Outcome(List<FailureClassifier.Kind> retries, boolean passed) {
+        Stats stats() {
+            return new Stats(1, passed && retries.isEmpty() ? 1 : 0, passed && !retries.isEmpty() ? 1 : 0,
+                    passed ? 0 : 1, retries.size());
+        }
+    }
+
+    // Loaded once: the report compares this run with previous runs only
+    private static final Map<String, Stats> previous = read(HISTORY);
+    private static final Map<String, List<FailureClassifier.Kind>> pending = new ConcurrentHashMap<>();
+    private static final Map<String, Outcome> settled = new ConcurrentHashMap<>();
+    private static final Map<String, Stats> thisRun = new ConcurrentHashMap<>();
+
+    /** Called by {@link RetryAnalyzer} when it schedules another attempt. */
+    static void noteRetry(ITestResult result, FailureClassifier.Kind kind) {
+        pending.computeIfAbsent(key(result), k -> new ArrayList<>()).add(kind);
+    }
+
+    /**
+     * The outcome of a test's final attempt, recorded on first call (from this listener or the Spark report,
+     * whichever TestNG notifies first).
+     */
+    public static Outcome settle(ITestResult result) {
+        return settled.computeIfAbsent(result.id(), id -> {
+            List<FailureClassifier.Kind> retries = pending.remove(key(result));
+            Outcome o = new Outcome(retries == null ? List.of() : List.copyOf(retries), result.isSuccess());
+            thisRun.merge(key(result), o.stats(), Stats::plus);
+            return o;
+        });
+    }
+
+    /** One-line summary for the report: attempts of this run and the test's record in previous runs, or null. */
+    public static String describe(ITestResult result) {
+        Outcome o = settle(result);
+        Stats before = previous.getOrDefault(key(result), Stats.NONE);
+        if (o.retries().isEmpty() && before.unstableRuns() == 0) return null;
+        String now = o.retries().isEmpty() ? (o.passed() ? "Passed first time" : "Failed without retry")
+                : (o.passed() ? "Passed" : "Failed") + " on attempt " + (o.retries().size() + 1) + " after "
+                        + o.retries().stream().map(Enum::name).collect(Collectors.joining(", "));
+        return String.format(Locale.ROOT, "%s; previous runs: %d of %d needed a retry or failed (%.2f retries/run)",
+                now, before.unstableRuns(), before.runs(), before.retriesPerRun());
+    }
+
+    // Setup retries (TestBase#prepare) happen before onTestStart and count like retries of the test itself
+    @Override
+    public void onTestStart(ITestResult result) {
+        if (result.getAttribute(TestBase.SETUP_RETRIES) instanceof List<?> kinds && !kinds.isEmpty()) {
+            List<FailureClassifier.Kind> retries = pending.computeIfAbsent(key(result), k -> new ArrayList<>());
+            for (Object k : kinds) retries.add((FailureClassifier.Kind) k);
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        settle(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        settle(result);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (thisRun.isEmpty()) return;
+        Map<String, Stats> merged = new TreeMap<>(read(HISTORY));
+        thisRun.forEach((test, s) -> merged.merge(test, s, Stats::plus));
+        try {
+            write(merged);
+            writeSummary(merged);
+        } catch (IOException e) {
+            log.warn("Failed to write flakiness history: {}", e.getMessage());
+        }
+        thisRun.forEach((test, s) -> {
+            if (s.retries() > 0) log.warn("Flaky: {} needed {} retr{}", test, s.retries(), s.retries() == 1 ? "y" : "ies");
+        });
+    }
+
+    private static String key(ITestResult result) {
+        return DurationRecorder.key(result.getMethod());
+    }
+
+    /** Tests that needed retries, most retries per run first. */
+    static List<Map.Entry<String, Stats>> flakiest(Map<String, Stats> history, int limit) {
+        return history.entrySet().stream()
+                .filter(e -> e.getValue().retries() > 0 || e.getValue().failed() > 0)
+                .sorted(Comparator.comparingDouble((Map.Entry<String, Stats> e) -> e.getValue().retriesPerRun()).reversed()
+                        .thenComparing(e -> -e.getValue().unstableRuns())
+                        .thenComparing(Map.Entry::getKey))
+                .limit(limit)
+                .toList();
+    }
+
+    private static void writeSummary(Map<String, Stats> history) throws IOException {
+        StringBuilder md = new StringBuilder("# Flakiest tests\n\n")
+                .append("| Test | Runs | Passed first time | Passed after retry | Failed | Retries/run |\n")
+                .append("|---|---:|---:|---:|---:|---:|\n");
+        for (Map.Entry<String, Stats> e : flakiest(history, TOP)) {
+            Stats s = e.getValue();
+            md.append(String.format(Locale.ROOT, "| %s | %d | %d | %d | %d | %.2f |%n",
+                    e.getKey(), s.runs(), s.passedFirst(), s.passedAfterRetry(), s.failed(), s.retriesPerRun()));
+        }
+        Files.createDirectories(SUMMARY.getParent());
+        Files.writeString(SUMMARY, md);
+    }
+
+    private static void write(Map<String, Stats> history) throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER).append('\n');
+        history.forEach((test, s) -> csv.append(test).append(',').append(s.runs()).append(',').append(s.passedFirst())
+                .append(',').append(s.passedAfterRetry()).append(',').append(s.failed()).append(',').append(s.retries()).append('\n'));
+        Path abs = HISTORY.toAbsolutePath();
+        Files.createDirectories(abs.getParent());
+        Files.writeString(abs, csv);
+    }
+
+    private static Map<String, Stats> read(Path file) {
+        Map<String, Stats> history = new TreeMap<>();
+        if (!Files.exists(file)) return history;
+        try {
+            for (String line : Files.readAllLines(file)) {
+                String[] f = line.split(",");
+                if (f.length != 6 || line.equals(HEADER)) continue;
+                try {
+                    history.put(f[0], new Stats(Long.parseLong(f[1]), Long.parseLong(f[2]), Long.parseLong(f[3]),
+                            Long.parseLong(f[4]), Long.parseLong(f[5])));
+                } catch (NumberFormatException ignored) { }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read flakiness history {}: {}", file, e.getMessage());
+        }
+        return history;
+    }
+}
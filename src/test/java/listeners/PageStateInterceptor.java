@@ -0,0 +1,35 @@
+package listeners;
+
+import base.PageState;
+import base.RequiresPage;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Orders browser tests by the {@link PageState} they declare with {@link RequiresPage}, so a pooled session walks
+ * forward through the states (hero, links, contact) and only reloads the site when a test dirtied the page.
+ * Within a state, tests that dirty the page run last. The sort is stable: tests without the annotation, and tests
+ * of the same state, keep their original order.
+ */
+public class PageStateInterceptor implements IMethodInterceptor {
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        ordered.sort(Comparator.comparingInt(PageStateInterceptor::rank));
+        return ordered;
+    }
+
+    private static int rank(IMethodInstance instance) {
+        Method m = instance.getMethod().getConstructorOrMethod().getMethod();
+        RequiresPage page = m == null ? null : m.getAnnotation(RequiresPage.class);
+        if (page == null) return -1;
+        return page.value().ordinal() * 2 + (page.dirties() ? 1 : 0);
+    }
+}
@@ -0,0 +1,37 @@
+package listeners;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Lets the parallel mode of testng.xml be chosen from the command line without editing the suite file.
+ * <p>
+ * {@code -Dsuite.parallel=methods|classes|tests|none} and {@code -Dsuite.threads=N} (defaults to the number of
+ * available cores). Unless {@code -Ddriver.pool.size} is given, the driver pool is sized to the suite's thread count
+ * (one session for a serial suite), whether the parallel mode comes from these switches or from testng.xml, so every
+ * worker thread can hold a pre-warmed session.
+ */
+public class ParallelSuiteConfigurer implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        String parallel = System.getProperty("suite.parallel");
+        if (parallel != null && !parallel.isBlank()) {
+            XmlSuite.ParallelMode mode = XmlSuite.ParallelMode.getValidParallel(parallel.trim());
+            int threads = Integer.getInteger("suite.threads", Runtime.getRuntime().availableProcessors());
+            for (XmlSuite suite : suites) {
+                suite.setParallel(mode);
+                suite.setThreadCount(threads);
+            }
+        }
+        if (System.getProperty("driver.pool.size") == null) {
+            int threads = suites.stream()
+                    .filter(s -> s.getParallel() != null && s.getParallel().isParallel())
+                    .mapToInt(XmlSuite::getThreadCount)
+                    .max().orElse(1);
+            System.setProperty("driver.pool.size", String.valueOf(Math.max(1, threads)));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package listeners;
+
+import base.PagePerformance;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.util.List;
+
+/**
+ * Fails a test whose page loads exceeded a performance budget under {@code -Dperf.mode=fail}.
+ * <p>
+ * {@link PagePerformance} measures in {@code @BeforeMethod} setup. Throwing there would make TestNG report the test,
+ * and every later test of the class, as skipped, so the violations are held until the test body has run and are
+ * reported here as the test's own failure.
+ */
+public class PerfBudgetListener implements IInvokedMethodListener {
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (!method.isTestMethod() || result.getStatus() != ITestResult.SUCCESS) return;
+        List<String> violations = PagePerformance.failingViolations();
+        if (violations.isEmpty()) return;
+        result.setStatus(ITestResult.FAILURE);
+        result.setThrowable(new AssertionError("Performance budget violated: " + String.join("; ", violations)));
+    }
+}
@@ -0,0 +1,43 @@
+package listeners;
+
+import base.FailureClassifier;
+import base.RetryPolicy;
+import base.TestBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+/**
+ * Re-runs a browser test whose failure {@link FailureClassifier} considers transient (wait timeout, stale element,
+ * page not rendered yet, crashed session), with the attempts and backoff of {@link RetryPolicy}. Assertion failures
+ * on a rendered page and other errors are reported straight away.
+ * <p>
+ * Only the test body is covered here; transient failures while {@code setup} loads the page are retried by
+ * {@link TestBase#prepare} before the test runs. The retry gets its session the usual way: the failed
+ * test's page is invalidated, so it starts from a fresh load on a pooled session, and a crashed session is
+ * discarded by {@link TestBase} so the retry runs on a new one. Applied to every {@link TestBase} test by
+ * {@link RetryTransformer}; retries are recorded in {@link FlakinessHistory}.
+ */
+public class RetryAnalyzer implements IRetryAnalyzer {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryAnalyzer.class);
+
+    // TestNG creates one analyzer per test method (and parameter set), so this counts that test's retries
+    private int retries;
+
+    @Override
+    public boolean retry(ITestResult result) {
+        // Runs before @AfterMethod, so the test's session is still leased to this thread and can be probed
+        FailureClassifier.Kind kind = FailureClassifier.classify(result.getThrowable(), TestBase.currentDriver());
+        result.setAttribute(FailureClassifier.ATTRIBUTE, kind);
+        if (!kind.isTransient() || retries >= RetryPolicy.MAX_RETRIES) return false;
+
+        retries++;
+        FlakinessHistory.noteRetry(result, kind);
+        long delay = RetryPolicy.backoff(retries);
+        log.warn("Retrying {} ({}, attempt {} of {}) in {} ms", result.getMethod().getMethodName(), kind,
+                retries + 1, RetryPolicy.MAX_RETRIES + 1, delay);
+        return RetryPolicy.pause(delay);
+    }
+}
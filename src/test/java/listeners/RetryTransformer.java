@@ -0,0 +1,26 @@
+package listeners;
+
+import base.TestBase;
+import org.testng.IAnnotationTransformer;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Installs {@link RetryAnalyzer} on every browser test (subclasses of {@link TestBase}) that does not declare its
+ * own {@code retryAnalyzer}. Framework unit tests are left alone: their failures are never transient.
+ */
+public class RetryTransformer implements IAnnotationTransformer {
+
+    @Override
+    @SuppressWarnings("rawtypes") // signature fixed by TestNG's raw IAnnotationTransformer
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        if (testMethod == null || !TestBase.class.isAssignableFrom(testMethod.getDeclaringClass())) return;
+        Test declared = testMethod.getAnnotation(Test.class);
+        // The default is TestNG's internal no-op analyzer; anything else was chosen by the test
+        if (declared != null && !declared.retryAnalyzer().getName().startsWith("org.testng.")) return;
+        annotation.setRetryAnalyzer(RetryAnalyzer.class);
+    }
+}
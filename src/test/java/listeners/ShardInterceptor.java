@@ -0,0 +1,110 @@
+package listeners;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs one slice of the suite when {@code -Dshard=i/n} is given (1-based, e.g. {@code 2/4}); without it every test
+ * runs.
+ * <p>
+ * Slices are balanced by the durations {@link DurationRecorder} keeps in {@code .test-durations.csv}: tests are
+ * handed out longest first, each to the shard with the least work so far (tests not in the history count as the
+ * median known duration). The assignment depends only on the test names and the history file, so every shard
+ * computes the same split without talking to the others. {@link ShardMerge} combines the shards' reports.
+ */
+public class ShardInterceptor implements IMethodInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardInterceptor.class);
+
+    // Estimate for every test when there is no history yet
+    static final long DEFAULT_MS = 1_000;
+
+    /** A parsed {@code -Dshard} value; {@code index} is 1-based. */
+    record Shard(int index, int count) {
+        static Shard parse(String spec) {
+            String[] parts = spec.trim().split("/");
+            try {
+                if (parts.length == 2) {
+                    int index = Integer.parseInt(parts[0].trim());
+                    int count = Integer.parseInt(parts[1].trim());
+                    if (count >= 1 && index >= 1 && index <= count) return new Shard(index, count);
+                }
+            } catch (NumberFormatException ignored) { }
+            throw new IllegalArgumentException("Invalid -Dshard='" + spec + "' (expected i/n with 1 <= i <= n)");
+        }
+
+        @Override
+        public String toString() {
+            return index + "/" + count;
+        }
+    }
+
+    /** The shard this JVM runs, or null when the suite is not sharded. */
+    static Shard shard() {
+        String spec = System.getProperty("shard", "");
+        return spec.isBlank() ? null : Shard.parse(spec);
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        Shard shard = shard();
+        if (shard == null || shard.count() == 1) return methods;
+
+        Set<String> keys = new HashSet<>();
+        for (IMethodInstance m : methods) keys.add(DurationRecorder.key(m.getMethod()));
+        Map<String, Long> history = DurationRecorder.read(DurationRecorder.HISTORY);
+        Set<String> mine = new HashSet<>(partition(keys, history, shard.count()).get(shard.index() - 1));
+
+        List<IMethodInstance> selected = new ArrayList<>();
+        for (IMethodInstance m : methods) {
+            if (mine.contains(DurationRecorder.key(m.getMethod()))) selected.add(m);
+        }
+        log.info("Shard {}: running {} of {} test methods ({})", shard, selected.size(), methods.size(),
+                history.isEmpty() ? "no duration history" : history.size() + " durations known");
+        return selected;
+    }
+
+    /**
+     * Longest-processing-time split of {@code tests} into {@code count} shards. Deterministic: ties in duration are
+     * broken by test name, ties in load by the lower shard index.
+     */
+    static List<List<String>> partition(Collection<String> tests, Map<String, Long> durations, int count) {
+        long fallback = median(tests.stream().filter(durations::containsKey).map(durations::get).toList());
+        Map<String, Long> estimate = new HashMap<>();
+        for (String t : tests) estimate.put(t, durations.getOrDefault(t, fallback));
+
+        List<String> order = new ArrayList<>(estimate.keySet());
+        order.sort(Comparator.comparingLong((String t) -> estimate.get(t)).reversed().thenComparing(Comparator.naturalOrder()));
+
+        List<List<String>> shards = new ArrayList<>();
+        long[] load = new long[count];
+        for (int i = 0; i < count; i++) shards.add(new ArrayList<>());
+        for (String t : order) {
+            int lightest = 0;
+            for (int i = 1; i < count; i++) {
+                if (load[i] < load[lightest]) lightest = i;
+            }
+            shards.get(lightest).add(t);
+            load[lightest] += estimate.get(t);
+        }
+        return shards;
+    }
+
+    private static long median(List<Long> values) {
+        if (values.isEmpty()) return DEFAULT_MS;
+        List<Long> sorted = values.stream().sorted().toList();
+        return sorted.get(sorted.size() / 2);
+    }
+}
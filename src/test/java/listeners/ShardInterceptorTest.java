@@ -0,0 +1,48 @@
+package listeners;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+public class ShardInterceptorTest {
+
+    @Test
+    public void balancesByDuration() {
+        Map<String, Long> durations = Map.of("a", 9_000L, "b", 5_000L, "c", 4_000L, "d", 3_000L, "e", 2_000L);
+        List<List<String>> shards = ShardInterceptor.partition(durations.keySet(), durations, 2);
+        Assert.assertEquals(shards.get(0), List.of("a", "d"));
+        Assert.assertEquals(shards.get(1), List.of("b", "c", "e"));
+    }
+
+    @Test
+    public void everyTestRunsExactlyOnce() {
+        List<String> tests = new ArrayList<>();
+        for (int i = 0; i < 23; i++) tests.add("T#m" + i);
+        List<List<String>> shards = ShardInterceptor.partition(tests, Map.of("T#m0", 1_000L, "T#m1", 1_000L, "T#m3", 600_000L), 4);
+        List<String> all = new ArrayList<>();
+        shards.forEach(all::addAll);
+        Assert.assertEquals(all.size(), tests.size());
+        Assert.assertEquals(new HashSet<>(all), new HashSet<>(tests));
+        // the one long test gets a shard to itself; the unknown ones are spread over the rest
+        Assert.assertTrue(shards.stream().anyMatch(s -> s.equals(List.of("T#m3"))));
+    }
+
+    @Test
+    public void independentOfInputOrder() {
+        Map<String, Long> durations = Map.of("x", 100L, "y", 100L, "z", 300L);
+        Assert.assertEquals(ShardInterceptor.partition(List.of("x", "y", "z", "w"), durations, 3),
+                ShardInterceptor.partition(List.of("w", "z", "y", "x"), durations, 3));
+    }
+
+    @Test
+    public void parsesShardSpec() {
+        Assert.assertEquals(ShardInterceptor.Shard.parse(" 2/4 "), new ShardInterceptor.Shard(2, 4));
+        for (String bad : new String[]{"0/3", "4/3", "1", "a/b", "1/0"}) {
+            Assert.assertThrows(IllegalArgumentException.class, () -> ShardInterceptor.Shard.parse(bad));
+        }
+    }
+}
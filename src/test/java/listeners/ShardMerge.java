@@ -0,0 +1,140 @@
+package listeners;
+
+import base.ArtifactIndex;
+import base.ArtifactStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Combines the outputs of a sharded run ({@code -Dshard=i/n}, see {@link ShardInterceptor}) into one report tree.
+ * <p>
+ * Point it at each shard's {@code target} directory, in shard order (e.g. the artifacts downloaded from each CI
+ * job):
+ * <pre>
+ *   java -cp target/test-classes:&lt;test classpath&gt; listeners.ShardMerge [--out target] shard1/target shard2/target ...
+ * </pre>
+ * Surefire XML files are copied into {@code <out>/surefire-reports} with the shard number in their name. Failure
+ * artifacts listed in each shard's {@link ArtifactIndex} manifest are copied into {@code surefire-reports/test-debug}
+ * and indexed again in {@code <out>/test-debug/manifest.jsonl} (a shard without a manifest has its whole debug folder
+ * copied). The Extent JSON archives of every shard's newest run are
+ * rebuilt into one {@code <out>/extent-reports/spark.html}. The measured durations are folded into
+ * {@code .test-durations.csv}, so the next run's split reflects this one.
+ */
+public final class ShardMerge {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardMerge.class);
+
+    private ShardMerge() { }
+
+    public static void main(String[] args) throws IOException {
+        Path out = Path.of("target");
+        List<Path> shards = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--out") && i + 1 < args.length) out = Path.of(args[++i]);
+            else shards.add(Path.of(args[i]));
+        }
+        if (shards.isEmpty()) {
+            log.error("Usage: ShardMerge [--out dir] shardTargetDir...");
+            System.exit(2);
+        }
+
+        Path surefire = out.resolve("surefire-reports");
+        Path json = out.resolve("extent-reports").resolve("json")
+                .resolve("merged-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        Files.createDirectories(json);
+        int xml = 0, artifacts = 0;
+        List<ArtifactIndex.Entry> indexed = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            Path shard = shards.get(i);
+            String tag = "shard" + (i + 1);
+            xml += copy(shard.resolve("surefire-reports"), surefire, tag,
+                    p -> p.getFileName().toString().startsWith("TEST-") && p.toString().endsWith(".xml"));
+            Path debug = shard.resolve("surefire-reports").resolve("test-debug");
+            List<ArtifactIndex.Entry> manifest = ArtifactIndex.readManifest(shard.resolve("test-debug").resolve("manifest.jsonl"));
+            if (manifest.isEmpty()) {
+                artifacts += copy(debug, surefire.resolve("test-debug"), null, p -> !p.toString().endsWith(".zip"));
+            } else {
+                artifacts += copyIndexed(manifest, debug, surefire.resolve("test-debug"), indexed);
+            }
+            Path run = newestRun(shard.resolve("extent-reports").resolve("json"));
+            // archive names embed the pid, which repeats across containers
+            if (run != null) copy(run, json, tag, p -> p.toString().endsWith(".json"));
+            Path durations = shard.resolve("test-durations.csv");
+            if (Files.exists(durations)) DurationRecorder.fold(DurationRecorder.HISTORY, DurationRecorder.read(durations));
+        }
+        if (!indexed.isEmpty()) ArtifactIndex.writeManifest(out.resolve("test-debug").resolve("manifest.jsonl"), indexed);
+        Path spark = out.resolve("extent-reports").resolve("spark.html");
+        int archives = ExtentMerge.merge(json, spark);
+        log.info("Merged {} shard(s): {} surefire report(s), {} debug artifact(s), {} Extent archive(s) into {}",
+                shards.size(), xml, artifacts, archives, spark);
+    }
+
+    /** Copies matching files of {@code from} into {@code to}, prefixing names with {@code tag} when given. */
+    private static int copy(Path from, Path to, String tag, Predicate<Path> filter) throws IOException {
+        if (!Files.isDirectory(from)) return 0;
+        Files.createDirectories(to);
+        int copied = 0;
+        try (Stream<Path> files = Files.list(from)) {
+            for (Path f : (Iterable<Path>) files.filter(Files::isRegularFile).filter(filter)::iterator) {
+                String name = f.getFileName().toString();
+                if (tag != null) {
+                    // TEST-TestSuite.xml -> TEST-TestSuite-shard1.xml keeps surefire's TEST-*.xml pattern for CI parsers
+                    int dot = name.lastIndexOf('.');
+                    name = name.substring(0, dot) + "-" + tag + name.substring(dot);
+                }
+                Files.copy(f, to.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+                copied++;
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * Copies the files named by a shard's manifest from its debug folder (manifest paths are relative to the shard's
+     * working directory, so only the file name is kept) and adds the entries, pointing at {@code to}, to {@code merged}.
+     */
+    private static int copyIndexed(List<ArtifactIndex.Entry> manifest, Path from, Path to, List<ArtifactIndex.Entry> merged)
+            throws IOException {
+        Files.createDirectories(to);
+        int copied = 0;
+        for (ArtifactIndex.Entry e : manifest) {
+            Path dom = copyArtifact(e.artifacts().dom(), from, to);
+            if (dom == null) continue;
+            copied++;
+            Path screenshot = copyArtifact(e.artifacts().screenshot(), from, to);
+            if (screenshot != null) copied++;
+            merged.add(new ArtifactIndex.Entry(e.id(), e.test(), new ArtifactStore.Artifacts(dom, screenshot)));
+        }
+        return copied;
+    }
+
+    private static Path copyArtifact(Path listed, Path from, Path to) throws IOException {
+        if (listed == null) return null;
+        Path source = from.resolve(listed.getFileName());
+        if (!Files.isRegularFile(source)) return null;
+        Path target = to.resolve(listed.getFileName());
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        return target;
+    }
+
+    private static Path newestRun(Path root) throws IOException {
+        if (!Files.isDirectory(root)) return null;
+        try (Stream<Path> runs = Files.list(root)) {
+            return runs.filter(Files::isDirectory)
+                    .max(Comparator.comparingLong(p -> p.toFile().lastModified()))
+                    .orElse(null);
+        }
+    }
+}
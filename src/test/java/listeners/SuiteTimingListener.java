@@ -0,0 +1,103 @@
+package listeners;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Records suite wall-clock time per run so serial and parallel executions can be compared on the same machine.
+ * <p>
+ * Each run appends a row to {@code target/suite-timing.csv}; {@code target/suite-timing.md} is then regenerated
+ * with the latest serial run next to the latest parallel one.
+ */
+public class SuiteTimingListener implements ISuiteListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SuiteTimingListener.class);
+
+    private static final Path CSV = Path.of("target", "suite-timing.csv");
+    private static final Path SUMMARY = Path.of("target", "suite-timing.md");
+    private static final String HEADER = "timestamp,suite,parallel,threads,tests,wallMs,sumTestMs";
+
+    private long startNanos;
+
+    @Override
+    public void onStart(ISuite suite) {
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        long wallMs = (System.nanoTime() - startNanos) / 1_000_000;
+        List<ITestResult> results = new ArrayList<>();
+        suite.getResults().values().forEach(r -> {
+            results.addAll(r.getTestContext().getPassedTests().getAllResults());
+            results.addAll(r.getTestContext().getFailedTests().getAllResults());
+            results.addAll(r.getTestContext().getSkippedTests().getAllResults());
+        });
+        long sumTestMs = results.stream().mapToLong(r -> r.getEndMillis() - r.getStartMillis()).sum();
+        String parallel = suite.getXmlSuite().getParallel().toString();
+        int threads = suite.getXmlSuite().getThreadCount();
+
+        Row row = new Row(Instant.now().toString(), suite.getName(), parallel, threads, results.size(), wallMs, sumTestMs);
+        try {
+            Files.createDirectories(CSV.getParent());
+            if (!Files.exists(CSV)) Files.writeString(CSV, HEADER + System.lineSeparator());
+            Files.writeString(CSV, row.toCsv() + System.lineSeparator(), StandardOpenOption.APPEND);
+            writeSummary(Files.readAllLines(CSV));
+        } catch (IOException e) {
+            log.warn("Failed to record suite timing: {}", e.getMessage());
+        }
+        log.info("Suite '{}' parallel={} threads={} wall={}ms", suite.getName(), parallel, threads, wallMs);
+    }
+
+    private static void writeSummary(List<String> lines) throws IOException {
+        List<Row> rows = lines.stream().skip(1).map(Row::parse).flatMap(Optional::stream).toList();
+        Optional<Row> serial = rows.stream().filter(r -> "none".equals(r.parallel())).reduce((a, b) -> b);
+        Optional<Row> parallel = rows.stream().filter(r -> !"none".equals(r.parallel())).reduce((a, b) -> b);
+
+        StringBuilder md = new StringBuilder("# Suite timing: serial vs parallel\n\n");
+        md.append("| run | parallel | threads | tests | wall (ms) | sum of tests (ms) |\n");
+        md.append("|---|---|---|---|---|---|\n");
+        serial.ifPresent(r -> md.append(r.toMarkdown("serial")));
+        parallel.ifPresent(r -> md.append(r.toMarkdown("parallel")));
+        if (serial.isPresent() && parallel.isPresent() && parallel.get().wallMs() > 0) {
+            md.append(String.format("%nSpeed-up: %.2fx%n", (double) serial.get().wallMs() / parallel.get().wallMs()));
+        } else {
+            md.append("\nRun the suite once with `-Dsuite.parallel=none` and once with `-Dsuite.parallel=methods` to compare.\n");
+        }
+        Files.writeString(SUMMARY, md.toString());
+    }
+
+    private record Row(String timestamp, String suite, String parallel, int threads, int tests, long wallMs, long sumTestMs) {
+        String toCsv() {
+            return String.join(",", timestamp, suite.replace(',', ' '), parallel,
+                    String.valueOf(threads), String.valueOf(tests), String.valueOf(wallMs), String.valueOf(sumTestMs));
+        }
+
+        String toMarkdown(String label) {
+            return "| " + label + " (" + timestamp + ") | " + parallel + " | " + threads + " | " + tests + " | " + wallMs + " | " + sumTestMs + " |\n";
+        }
+
+        static Optional<Row> parse(String line) {
+            String[] f = line.split(",");
+            if (f.length != 7) return Optional.empty();
+            try {
+                return Optional.of(new Row(f[0], f[1], f[2], Integer.parseInt(f[3]), Integer.parseInt(f[4]),
+                        Long.parseLong(f[5]), Long.parseLong(f[6])));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+    }
+}
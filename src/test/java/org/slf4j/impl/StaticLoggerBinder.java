@@ -0,0 +1,32 @@
+package org.slf4j.impl;
+
+import base.JsonLog;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.spi.LoggerFactoryBinder;
+
+/** Binds SLF4J 1.7 to {@link JsonLog}; found by {@code LoggerFactory} on the test classpath. */
+public final class StaticLoggerBinder implements LoggerFactoryBinder {
+
+    private static final StaticLoggerBinder SINGLETON = new StaticLoggerBinder();
+
+    // Read by LoggerFactory to check compatibility; must not be final or it is inlined
+    public static String REQUESTED_API_VERSION = "1.7.36";
+
+    private final ILoggerFactory factory = JsonLog::logger;
+
+    private StaticLoggerBinder() { }
+
+    public static StaticLoggerBinder getSingleton() {
+        return SINGLETON;
+    }
+
+    @Override
+    public ILoggerFactory getLoggerFactory() {
+        return factory;
+    }
+
+    @Override
+    public String getLoggerFactoryClassStr() {
+        return JsonLog.class.getName();
+    }
+}
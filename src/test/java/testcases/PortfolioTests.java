@@ -1,231 +1,264 @@
 package testcases;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import base.AdaptiveWait;
+import base.ArtifactIndex;
+import base.ArtifactStore;
+import base.FailureClassifier;
+import base.NetworkControl;
+import base.PagePerformance;
+import base.PageSession;
+import base.PageState;
+import base.RequiresPage;
+import base.Screenshots;
+import base.StepTimer;
+import base.TestBase;
+import base.Waits;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.testng.annotations.*;
 import org.testng.ITestResult;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
-
-import java.time.Duration;
-import java.util.ArrayList;
+import java.lang.reflect.Method;
 import java.util.List;
-import org.testng.Reporter;
 
-public class PortfolioTests {
+public class PortfolioTests extends TestBase {
+
+    private static final Logger log = LoggerFactory.getLogger(PortfolioTests.class);
 
-    WebDriver driver;
-    WebDriverWait wait;
-    static final String BASE = "https://nadildulran.netlify.app/";
+    // Deployed site by default; -Dsite=local switches to the in-process fixture (see TestBase#baseUrl)
+    static final String BASE = baseUrl();
+
+    // Candidate navbar Contact locators, tried in order (the site uses buttons, not anchors, for the navbar)
+    private static final List<By> NAV_CONTACT_CANDIDATES = List.of(
+            By.cssSelector("a[href*='#contact']"),
+            By.xpath("//header//button[normalize-space()='Contact']"),
+            By.xpath("//button[normalize-space()='Contact']"),
+            By.xpath("//div[@id='menu-appbar']//p[normalize-space()='Contact']")
+    );
+
+    // Contact form fields; CSS unions equivalent to the attribute-only XPaths they replace
+    private static final String NAME_FIELD = "input[placeholder*='Your Name'], input[name='name'], input#name";
+    private static final String EMAIL_FIELD = "input[type='email'], input[placeholder*='Email'], input[name='email']";
+    private static final String MESSAGE_FIELD = "textarea[placeholder*='Message'], textarea[name='message'], textarea#message";
+    private static final By SEND_BUTTON = By.xpath("//button[normalize-space()='SEND' or contains(.,'Send')]");
 
     // ---------- setup/teardown ----------
-    @BeforeClass
-    public void setup() {
-        WebDriverManager.chromedriver().setup();
-        ChromeOptions options = new ChromeOptions();
-        options.setPageLoadStrategy(PageLoadStrategy.EAGER);
-        options.addArguments("--start-maximized");
-        // Allow headless mode via -Dheadless=true or env CHROME_HEADLESS=true
-        boolean headless = Boolean.parseBoolean(System.getProperty("headless", System.getenv().getOrDefault("CHROME_HEADLESS", "false")));
-        if (headless) {
-            options.addArguments("--headless=new");
-            options.addArguments("--disable-gpu");
-        }
-        // Allow specifying Chromium/Chrome binary path via env CHROME_BIN
-        String chromeBin = System.getenv("CHROME_BIN");
-        boolean usedCustomBinary = false;
-        if (chromeBin != null && !chromeBin.isBlank()) {
-            try {
-                java.nio.file.Path p = java.nio.file.Path.of(chromeBin);
-                if (java.nio.file.Files.exists(p)) {
-                    options.setBinary(chromeBin);
-                    usedCustomBinary = true;
-                } else {
-                    System.out.println("WARN: CHROME_BIN points to non-existent path: " + chromeBin + " — ignoring.");
-                }
-            } catch (RuntimeException e) {
-                System.out.println("WARN: Failed to evaluate CHROME_BIN='" + chromeBin + "' — ignoring. " + e.getMessage());
+    @BeforeMethod
+    public void setup(Method method, ITestResult result) {
+        // Sessions are pooled and keep their page between tests: reuse it when it is still the same document and the
+        // required state lies ahead of the current one (PageStateInterceptor orders tests so that it usually does)
+        RequiresPage required = method.getAnnotation(RequiresPage.class);
+        PageState needed = required == null ? PageState.HERO : required.value();
+        // SPA timing failures happen mostly here: prepare() retries transient ones on a reloaded (or new) session
+        prepare(result, () -> {
+            PageSession page = pageSession();
+            if (!page.canServe(needed)) {
+                loadSite();
+                page.loaded();
+            }
+            if (needed == PageState.CONTACT && page.state() != PageState.CONTACT) {
+                clickNavbarContactFast();
             }
+            page.moveTo(needed);
+        });
+    }
+
+    // Failed tests leave the page in an unknown state, and dirtying tests leave it unusable: reload for the next test
+    @AfterMethod(alwaysRun = true)
+    public void trackPageState(ITestResult result) {
+        if (getDriver() == null) return;
+        RequiresPage required = result.getMethod().getConstructorOrMethod().getMethod().getAnnotation(RequiresPage.class);
+        if (!result.isSuccess() || (required != null && required.dirties())) {
+            pageSession().invalidate();
         }
-        System.out.println("Launching Chrome with headless=" + headless + ", binary=" + (usedCustomBinary ? chromeBin : "<default>"));
-        driver = new ChromeDriver(options);
-        // Increase explicit wait timeout to be more tolerant of slow network/pages
-        wait = new WebDriverWait(driver, Duration.ofSeconds(30));
-        driver.get(BASE);
-        // Wait until the page is loaded and the client-side app has rendered into #root
-        wait.until(d -> ((JavascriptExecutor)d).executeScript("return document.readyState").equals("complete"));
-        wait.until(d -> ((JavascriptExecutor)d).executeScript("return document.querySelector('#root') && document.querySelector('#root').innerText.length > 10"));
     }
 
-    @AfterClass(alwaysRun = true)
-    public void cleanup() {
-        // Ensure any debug artifacts produced during tests are copied into the surefire reports
-        try {
-            Path debugDir = Path.of("target", "test-debug");
-            Path surefireDir = Path.of("target", "surefire-reports", "test-debug");
-            if (Files.exists(debugDir)) {
-                Files.createDirectories(surefireDir);
-                // copy all files (non-recursive since debug files are flat)
-                try (var stream = Files.list(debugDir)) {
-                    stream.forEach(p -> {
-                        try {
-                            Files.copy(p, surefireDir.resolve(p.getFileName()), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-                        } catch (IOException e) {
-                            // ignore copy failures
-                        }
-                    });
-                }
-            }
-        } catch (IOException ignored) { }
-        if (driver != null) driver.quit();
+    private void loadSite() {
+        WebDriver driver = getDriver();
+        driver.get(BASE);
+        // Block (event-driven, in-page) until the page is loaded and the client-side app has rendered into #root
+        try (var ignored = StepTimer.span("spa.hydration")) {
+            AdaptiveWait.run("spa.hydration", WAIT_TIMEOUT, timeout -> Waits.untilHydrated(driver, timeout));
+        }
+        // Navigation/paint timings and transfer size of the initial load, checked against perf-budgets.properties
+        PagePerformance.check(driver, "home");
     }
 
     // ---------- utilities ----------
-    private WebElement q(By by) { return wait.until(ExpectedConditions.presenceOfElementLocated(by)); }
-    private void jsClick(WebElement el) { ((JavascriptExecutor)driver).executeScript("arguments[0].click();", el); }
-    private String hash() { return (String)((JavascriptExecutor)driver).executeScript("return location.hash;"); }
+    // Every call site names its wait: the timeout is learned from that site's own latencies (see TestBase#getWait)
+    private WebElement q(String condition, By by) {
+        try (var ignored = StepTimer.span("q")) { return getWait(condition).until(ExpectedConditions.presenceOfElementLocated(by)); }
+    }
+    private void jsClick(WebElement el) {
+        try (var ignored = StepTimer.span("jsClick")) { ((JavascriptExecutor)getDriver()).executeScript("arguments[0].click();", el); }
+    }
+    // Form handles are resolved once per loaded document and reused by every contact test on the session
+    private WebElement field(String css) {
+        return pageSession().handle(css, () -> locators("contact.field").css(css));
+    }
+    private WebElement sendButton() {
+        return pageSession().handle("send", () -> q("contact.send", SEND_BUTTON));
+    }
+    private String hash() { return (String)((JavascriptExecutor)getDriver()).executeScript("return location.hash;"); }
     private void clickNavbarContactFast() {
+        // Only what the navigation itself loaded: the home check already covers the document's load and paint timings
+        PagePerformance.mark(getDriver(), "contact");
+        try (var ignored = StepTimer.span("nav.contact")) { navigateToContact(); }
+        PagePerformance.checkSince(getDriver(), "contact");
+    }
+    private void navigateToContact() {
     // Direct link in header/nav, then assert we landed
     // Broaden selector to find contact links even if header/nav wrappers differ
-    // Try multiple strategies because the site uses buttons (not anchors) for navbar
-    By[] candidates = new By[] {
-            By.cssSelector("a[href*='#contact']"),
-            By.xpath("//header//button[normalize-space()='Contact']"),
-            By.xpath("//button[normalize-space()='Contact']"),
-            By.xpath("//div[@id='menu-appbar']//p[normalize-space()='Contact']")
-    };
+    WebDriver driver = getDriver();
+    WebElement link = pageSession().handle("nav.contact", this::findNavContact);
 
-    WebElement link = null;
-    for (By b : candidates) {
-        try {
-            List<WebElement> found = driver.findElements(b);
-            if (found != null && !found.isEmpty()) { link = found.get(0); break; }
-        } catch (WebDriverException ignored) { }
+    jsClick(link);
+        // Resolves on the hashchange event, or once a visible Contact heading is rendered
+        AdaptiveWait.run("contact.hash", WAIT_TIMEOUT, timeout -> Waits.until(driver, timeout,
+            "location.hash === '#contact' || Array.prototype.some.call(document.querySelectorAll('h1,h2,h3,h4'),"
+                + " function (h) { return h.textContent.trim() === 'Contact' && h.getClientRects().length > 0; })"));
     }
 
-    if (link == null) {
+    private WebElement findNavContact() {
+        for (By b : NAV_CONTACT_CANDIDATES) {
+            try {
+                List<WebElement> found = getDriver().findElements(b);
+                if (found != null && !found.isEmpty()) return found.get(0);
+            } catch (WebDriverException ignored) { }
+        }
         // Fall back to waiting briefly for the first candidate to appear (preserve previous behavior)
-        link = q(By.cssSelector("a[href*='#contact']"));
-    }
-
-    jsClick(link);
-        wait.until(ExpectedConditions.or(
-            d -> "#contact".equals(hash()),
-            ExpectedConditions.visibilityOfElementLocated(By.xpath("//*[self::h1 or self::h2 or self::h3 or self::h4][normalize-space()='Contact']"))
-        ));
+        return q("nav.contact.link", By.cssSelector("a[href*='#contact']"));
     }
 
     // ---------- tests ----------
 
     @Test(description = "Brand & hero texts visible")
+    @RequiresPage(PageState.HERO)
     public void heroTextsPresent() {
         // brand in header
-        q(By.xpath("//header//a[normalize-space()='NADIL']"));
+        q("hero.brand", By.xpath("//header//a[normalize-space()='NADIL']"));
         // main name (H1 split lines OK)
-        q(By.xpath("//*[self::h1 or self::h2][contains(normalize-space(.),'Nadil') and contains(normalize-space(.),'Gamage')]"));
-        // tagline
-        q(By.xpath("//*[contains(.,'Computer Science Undergraduate') and contains(.,'Tech Enthusiast')]"));
+        q("hero.name", By.xpath("//*[self::h1 or self::h2][contains(normalize-space(.),'Nadil') and contains(normalize-space(.),'Gamage')]"));
+        // tagline (both parts resolved in one scripted lookup)
+        locators("hero.tagline").awaitTexts("Computer Science Undergraduate", "Tech Enthusiast");
     }
 
     @Test(description = "Navbar Contact click is fast and lands in section")
+    @RequiresPage(PageState.CONTACT) // the navbar click happens in setup, timed as nav.contact
     public void navContactNavigates() {
-        clickNavbarContactFast();
-        assert "#contact".equals(hash()) || !driver.findElements(
+        assert "#contact".equals(hash()) || !getDriver().findElements(
             By.xpath("//*[self::h1 or self::h2 or self::h3 or self::h4][normalize-space()='Contact']")).isEmpty();
     }
 
     @Test(description = "External links: GitHub and LinkedIn open")
+    @RequiresPage(PageState.LINKS)
     public void externalLinksOpen() {
     // Find ‘Links’ section (may use smaller heading levels)
-    q(By.xpath("//*[self::h1 or self::h2 or self::h3 or self::h4 or self::h5 or self::h6][normalize-space()='Links']"));
-        WebElement gh = q(By.xpath("//a[contains(translate(.,'GITHUB','github'),'github')]"));
-        WebElement li = q(By.xpath("//a[contains(translate(.,'LINKEDIN','linkedin'),'linkedin')]"));
+    q("links.heading", By.xpath("//*[self::h1 or self::h2 or self::h3 or self::h4 or self::h5 or self::h6][normalize-space()='Links']"));
+        WebElement gh = q("links.github", By.xpath("//a[contains(translate(.,'GITHUB','github'),'github')]"));
+        WebElement li = q("links.linkedin", By.xpath("//a[contains(translate(.,'LINKEDIN','linkedin'),'linkedin')]"));
         String ghHref = gh.getAttribute("href");
         String liHref = li.getAttribute("href");
         assert ghHref != null && ghHref.contains("github");
         assert liHref != null && liHref.contains("linkedin");
 
-        // Open GitHub in a new tab and verify domain
-        ((JavascriptExecutor)driver).executeScript("window.open(arguments[0], '_blank');", ghHref);
-        List<String> tabs = new ArrayList<>(driver.getWindowHandles());
-        driver.switchTo().window(tabs.get(tabs.size()-1));
-        wait.until(ExpectedConditions.urlContains("github"));
-        driver.close(); driver.switchTo().window(tabs.get(0));
+        WebDriver driver = getDriver();
+        if (NetworkControl.stubbing(driver)) {
+            // GitHub is answered by the network stub, which is bound to this tab: follow the link here and go back.
+            // If the back navigation reloads the site, PageSession notices and the next test starts from a fresh load
+            driver.get(ghHref);
+            AdaptiveWait.webDriverWait(driver, "external.stubbed", WAIT_TIMEOUT).until(ExpectedConditions.urlContains("github"));
+            driver.navigate().back();
+            return;
+        }
+
+        // Open GitHub in a new tab and verify domain; switch by handle rather than by position in
+        // getWindowHandles(), whose order is not guaranteed
+        String original = driver.getWindowHandle();
+        driver.switchTo().newWindow(WindowType.TAB);
+        try {
+            driver.get(ghHref);
+            // A real third-party page load, far slower than a lookup: learned separately
+            AdaptiveWait.webDriverWait(driver, "external.github", WAIT_TIMEOUT).until(ExpectedConditions.urlContains("github"));
+        } finally {
+            driver.close();
+            driver.switchTo().window(original);
+        }
     }
 
     @Test(description = "Skills contain representative items")
+    @RequiresPage(PageState.HERO)
     public void skillsContainExpected() {
-        // A few samples across groups
-        q(By.xpath("//*[contains(.,'Programming Languages')]"));
-        q(By.xpath("//*[contains(.,'C/C++')]"));
-        q(By.xpath("//*[contains(.,'Java')]"));
-        q(By.xpath("//*[contains(.,'Next.js')]"));
-        q(By.xpath("//*[contains(.,'PostgreSQL')]"));
-        q(By.xpath("//*[contains(.,'LangChain')]"));
-        q(By.xpath("//*[contains(.,'GitHub (Branching/Actions)')]"));
-        q(By.xpath("//*[contains(.,'Docker')]"));
+        // A few samples across groups, checked in a single round-trip per poll
+        locators("skills.texts").awaitTexts(
+                "Programming Languages",
+                "C/C++",
+                "Java",
+                "Next.js",
+                "PostgreSQL",
+                "LangChain",
+                "GitHub (Branching/Actions)",
+                "Docker");
     }
 
     @Test(description = "Projects section shows key projects")
+    @RequiresPage(PageState.HERO)
     public void projectsVisible() {
-    q(By.xpath("//*[self::h1 or self::h2 or self::h3 or self::h4][normalize-space()='Projects']"));
-        q(By.xpath("//*[contains(.,'AquaClash-Swimming Tournament Management System')]"));
-        q(By.xpath("//*[contains(.,'NEMRA-Smart Apartment Management System')]"));
-        q(By.xpath("//*[contains(.,'Dental Clinic Management System')]"));
+    q("projects.heading", By.xpath("//*[self::h1 or self::h2 or self::h3 or self::h4][normalize-space()='Projects']"));
+        locators("projects.texts").awaitTexts(
+                "AquaClash-Swimming Tournament Management System",
+                "NEMRA-Smart Apartment Management System",
+                "Dental Clinic Management System");
     }
 
     // ---------- Contact form tests ----------
 
     @Test(description = "Contact validation: required fields block submission")
+    @RequiresPage(PageState.CONTACT)
     public void contactRequiredValidation() {
-        clickNavbarContactFast();
-        WebElement send = q(By.xpath("//button[normalize-space()='SEND' or contains(.,'Send')]"));
-        jsClick(send);
+        // The form is shared with the other contact tests on this session; start from empty fields
+        field(NAME_FIELD).clear();
+        field(EMAIL_FIELD).clear();
+        field(MESSAGE_FIELD).clear();
+        jsClick(sendButton());
 
         // Use HTML5 validity via JS for reliability
-        Boolean nameValid = (Boolean)((JavascriptExecutor)driver)
+        Boolean nameValid = (Boolean)((JavascriptExecutor)getDriver())
                 .executeScript("return document.querySelector(\"input[placeholder*='Your Name'],input[name='name'],#name\").checkValidity();");
-        Boolean emailValid = (Boolean)((JavascriptExecutor)driver)
+        Boolean emailValid = (Boolean)((JavascriptExecutor)getDriver())
                 .executeScript("return document.querySelector(\"input[type='email'],input[name='email']\").checkValidity();");
-        Boolean msgValid = (Boolean)((JavascriptExecutor)driver)
+        Boolean msgValid = (Boolean)((JavascriptExecutor)getDriver())
                 .executeScript("return document.querySelector(\"textarea[placeholder*='Message'],textarea[name='message'],#message\").checkValidity();");
 
         assert !nameValid || !emailValid || !msgValid : "Form should not be valid when empty.";
     }
 
     @Test(description = "Contact validation: invalid email rejected")
+    @RequiresPage(PageState.CONTACT)
     public void contactInvalidEmail() {
-        clickNavbarContactFast();
-        WebElement name = q(By.xpath("//input[contains(@placeholder,'Your Name') or @name='name' or @id='name']"));
-        WebElement email = q(By.xpath("//input[@type='email' or contains(@placeholder,'Email') or @name='email']"));
-        WebElement msg = q(By.xpath("//textarea[contains(@placeholder,'Message') or @name='message' or @id='message']"));
+        WebElement name = field(NAME_FIELD);
+        WebElement email = field(EMAIL_FIELD);
+        WebElement msg = field(MESSAGE_FIELD);
 
         name.clear(); name.sendKeys("Bad Email Test");
         email.clear(); email.sendKeys("invalid-email"); // no @
         msg.clear(); msg.sendKeys("Testing invalid email.");
 
-        WebElement send = q(By.xpath("//button[normalize-space()='SEND' or contains(.,'Send')]"));
-        jsClick(send);
+        jsClick(sendButton());
 
-        Boolean emailOk = (Boolean)((JavascriptExecutor)driver)
+        Boolean emailOk = (Boolean)((JavascriptExecutor)getDriver())
                 .executeScript("return document.querySelector(\"input[type='email'],input[name='email']\").checkValidity();");
         assert !emailOk : "Email should be invalid.";
     }
 
     @Test(description = "Contact happy path: submits and shows success")
+    @RequiresPage(value = PageState.CONTACT, dirties = true) // success message stays on the page
     public void contactHappyPath() {
-        clickNavbarContactFast();
-        WebElement name = q(By.xpath("//input[contains(@placeholder,'Your Name') or @name='name' or @id='name']"));
-        WebElement email = q(By.xpath("//input[@type='email' or contains(@placeholder,'Email') or @name='email']"));
-        WebElement msg = q(By.xpath("//textarea[contains(@placeholder,'Message') or @name='message' or @id='message']"));
+        WebElement name = field(NAME_FIELD);
+        WebElement email = field(EMAIL_FIELD);
+        WebElement msg = field(MESSAGE_FIELD);
 
         name.clear(); name.sendKeys("Test User");
         email.clear(); email.sendKeys("test.user@example.com");
@@ -238,50 +271,41 @@ public class PortfolioTests {
                 """;
         msg.clear(); msg.sendKeys(body);
 
-        WebElement send = q(By.xpath("//button[normalize-space()='SEND' or contains(.,'Send')]"));
-        jsClick(send);
-
-        By s1 = By.xpath("//*[contains(normalize-space(.), \"Thanks! I’ll get back to you soon.\")]");
-        By s2 = By.xpath("//*[contains(normalize-space(.), \"Thanks! I'll get back to you soon.\")]");
-        wait.until(ExpectedConditions.or(
-                ExpectedConditions.visibilityOfElementLocated(s1),
-                ExpectedConditions.visibilityOfElementLocated(s2)
-        ));
+        try (var ignored = StepTimer.span("contact.submit")) {
+            jsClick(sendButton());
+            // exact success text (handle curly/straight apostrophes), awaited via an in-page observer instead of polling
+            AdaptiveWait.run("contact.success", WAIT_TIMEOUT, timeout -> Waits.untilAnyTextVisible(getDriver(), timeout,
+                    "Thanks! I’ll get back to you soon.",
+                    "Thanks! I'll get back to you soon."));
+        }
     }
 
     // Capture debug artifacts (screenshot + DOM) when a test fails to help diagnose SPA timing/selector issues
     @AfterMethod(alwaysRun = true)
     public void captureDebugOnFailure(ITestResult result) {
         if (result.isSuccess()) return;
+        WebDriver driver = getDriver();
+        if (driver == null) return;
+        // Nothing to capture from a dead session; TestBase replaces it
+        if (result.getAttribute(FailureClassifier.ATTRIBUTE) == FailureClassifier.Kind.DRIVER_CRASH) return;
         try {
-            Path outDir = Path.of("target", "test-debug");
-            Path surefireDir = Path.of("target", "surefire-reports", "test-debug");
-            Files.createDirectories(outDir);
-            Files.createDirectories(surefireDir);
             String name = result.getMethod().getMethodName();
             String stamp = String.valueOf(System.currentTimeMillis());
 
-            // Save page source (DOM)
+            // Only grab the bytes here; encoding, dedup and disk I/O happen on the screenshot workers and artifact writer
             String dom = (String) ((JavascriptExecutor) driver).executeScript("return document.documentElement.outerHTML;");
-            Path domFile = outDir.resolve(name + "-" + stamp + ".html");
-            Files.writeString(domFile, dom, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            // also write into surefire reports area so CI can pick it up even if Maven stops early
-            Path domFile2 = surefireDir.resolve(name + "-" + stamp + ".html");
-            Files.writeString(domFile2, dom, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            Reporter.log("DOM saved: " + domFile2.toString());
-
-            // Save screenshot (if supported)
-            if (driver instanceof TakesScreenshot ts) {
-                byte[] bytes = ts.getScreenshotAs(OutputType.BYTES);
-                Path imgFile = outDir.resolve(name + "-" + stamp + ".png");
-                Files.write(imgFile, bytes, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-                Path imgFile2 = surefireDir.resolve(name + "-" + stamp + ".png");
-                Files.write(imgFile2, bytes, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-                Reporter.log("Screenshot saved: " + imgFile2.toString());
-            }
-        } catch (IOException | WebDriverException e) {
-            // Do not fail the test further because debug capture failed; just log to stdout
-            System.out.println("Failed to capture debug artifacts: " + e.getMessage());
+            // Scope the screenshot to the section the test was on (e.g. #contact); the viewport otherwise
+            WebElement section = (WebElement) ((JavascriptExecutor) driver).executeScript(
+                    "try { return location.hash ? document.querySelector(location.hash) : null; } catch (e) { return null; }");
+            byte[] png = Screenshots.capture(driver, section);
+            ArtifactStore.Artifacts saved = ArtifactStore.submit(name + "-" + stamp, dom, png);
+            ArtifactIndex.publish(result, saved);
+
+            log.info("DOM saved: {}", saved.dom());
+            if (saved.screenshot() != null) log.info("Screenshot saved: {}", saved.screenshot());
+        } catch (WebDriverException e) {
+            // Do not fail the test further because debug capture failed; just log it
+            log.warn("Failed to capture debug artifacts: {}", e.getMessage());
         }
     }
 }
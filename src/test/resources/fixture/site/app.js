@@ -0,0 +1,87 @@
+// Minimal client-side renderer mirroring the structure the portfolio tests assert on.
+(function () {
+  var skills = [
+    ['Programming Languages', ['C/C++', 'Java', 'Python', 'JavaScript', 'TypeScript']],
+    ['Frameworks & Libraries', ['React', 'Next.js', 'Spring Boot', 'Node.js']],
+    ['Databases', ['PostgreSQL', 'MySQL', 'MongoDB']],
+    ['AI & Data', ['LangChain']],
+    ['Tools & DevOps', ['GitHub (Branching/Actions)', 'Docker']]
+  ];
+  var projects = [
+    'AquaClash-Swimming Tournament Management System',
+    'NEMRA-Smart Apartment Management System',
+    'Dental Clinic Management System'
+  ];
+  var sections = ['Home', 'Skills', 'Projects', 'Links', 'Contact'];
+
+  function el(tag, attrs, children) {
+    var e = document.createElement(tag);
+    Object.keys(attrs || {}).forEach(function (k) { e.setAttribute(k, attrs[k]); });
+    (children || []).forEach(function (c) { e.append(c); });
+    return e;
+  }
+
+  function goTo(id) {
+    var target = document.getElementById(id);
+    if (target) target.scrollIntoView();
+    location.hash = '#' + id;
+  }
+
+  var nav = el('nav', {}, sections.map(function (s) {
+    var b = el('button', { type: 'button' }, [s]);
+    b.addEventListener('click', function () { goTo(s.toLowerCase()); });
+    return b;
+  }));
+  var header = el('header', {}, [el('a', { href: '#home' }, ['NADIL']), nav]);
+
+  var hero = el('section', { id: 'home' }, [
+    el('h1', {}, ['Nadil', el('br'), 'Gamage']),
+    el('p', {}, ['Computer Science Undergraduate | Tech Enthusiast'])
+  ]);
+
+  var skillsSection = el('section', { id: 'skills' }, [el('h2', {}, ['Skills'])].concat(skills.map(function (g) {
+    return el('div', { 'class': 'skills-group' }, [
+      el('h3', {}, [g[0]]),
+      el('ul', {}, g[1].map(function (s) { return el('li', {}, [s]); }))
+    ]);
+  })));
+
+  var projectsSection = el('section', { id: 'projects', 'class': 'projects' }, [
+    el('h2', {}, ['Projects']),
+    el('ul', {}, projects.map(function (p) { return el('li', {}, [el('h3', {}, [p])]); }))
+  ]);
+
+  var linksSection = el('section', { id: 'links' }, [
+    el('h4', {}, ['Links']),
+    el('a', { href: 'https://github.com/Nadil-Dulran', target: '_blank', rel: 'noopener' }, ['GitHub']),
+    ' ',
+    el('a', { href: 'https://www.linkedin.com/in/nadil-dulran', target: '_blank', rel: 'noopener' }, ['LinkedIn'])
+  ]);
+
+  var status = el('p', { 'class': 'success', role: 'status' });
+  var form = el('form', {}, [
+    el('input', { name: 'name', placeholder: 'Your Name', required: '' }),
+    el('input', { type: 'email', name: 'email', placeholder: 'Your Email', required: '' }),
+    el('textarea', { name: 'message', placeholder: 'Your Message', rows: '5', required: '' }),
+    el('button', { type: 'submit' }, ['SEND'])
+  ]);
+  form.addEventListener('submit', function (ev) {
+    ev.preventDefault();
+    var field = function (n) { return form.querySelector('[name="' + n + '"]').value; };
+    var data = { name: field('name'), email: field('email'), message: field('message') };
+    fetch('/api/contact', {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify(data)
+    }).then(function (res) {
+      if (!res.ok) throw new Error('HTTP ' + res.status);
+      form.reset();
+      status.textContent = 'Thanks! I’ll get back to you soon.';
+    }).catch(function () {
+      status.textContent = 'Something went wrong. Please try again.';
+    });
+  });
+  var contactSection = el('section', { id: 'contact' }, [el('h2', {}, ['Contact']), form, status]);
+
+  document.getElementById('root').append(header, hero, skillsSection, projectsSection, linksSection, contactSection);
+})();